@@ -0,0 +1,56 @@
+#!/bin/sh
+# FoodFast Backend Load Test
+# Concurrent-request capacity, platform threads vs. virtual threads.
+#
+#   1. Platform threads:  mvn spring-boot:run
+#                         ./load-test.sh > platform.txt
+#   2. Virtual threads:   FOODFAST_VIRTUAL_THREADS=true mvn -Pjava21 spring-boot:run   (Java 21)
+#                         ./load-test.sh > virtual.txt
+#   3. Compare the two tables: the highest concurrency that still has no errors and an
+#      acceptable p99 is the capacity.
+#
+# Settings (environment): BASE_URL (http://localhost:8080), URL_PATH (/api/orders),
+# LEVELS (concurrency levels, "50 100 200 400 800"), REQUESTS_PER_CLIENT (20),
+# TIMEOUT_SECONDS (10). Needs curl, xargs, sort and awk.
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+URL_PATH=${URL_PATH:-/api/orders}
+LEVELS=${LEVELS:-"50 100 200 400 800"}
+REQUESTS_PER_CLIENT=${REQUESTS_PER_CLIENT:-20}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-10}
+
+URL="$BASE_URL$URL_PATH"
+
+if ! curl -s -o /dev/null --max-time "$TIMEOUT_SECONDS" "$BASE_URL/api/health/live"; then
+    echo "Backend not reachable at $BASE_URL" >&2
+    exit 1
+fi
+
+# Warm up (JIT, connection pool, caches)
+seq 200 | xargs -P 20 -I{} curl -s -o /dev/null --max-time "$TIMEOUT_SECONDS" "$URL"
+
+printf "%-12s %-10s %-10s %-10s %-10s %-10s\n" "concurrency" "requests" "errors" "req/s" "p50 ms" "p99 ms"
+
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+for CONCURRENCY in $LEVELS; do
+    TOTAL=$((CONCURRENCY * REQUESTS_PER_CLIENT))
+    START=$(date +%s.%N)
+    # One line per request: HTTP status (000 on timeout or refused connection) and seconds
+    seq "$TOTAL" | xargs -P "$CONCURRENCY" -I{} \
+        curl -s -o /dev/null --max-time "$TIMEOUT_SECONDS" -w "%{http_code} %{time_total}\n" "$URL" > "$RESULTS"
+    END=$(date +%s.%N)
+
+    sort -k2 -n "$RESULTS" | awk -v c="$CONCURRENCY" -v start="$START" -v end="$END" '
+        { code[NR] = $1; t[NR] = $2; if ($1 !~ /^2/) errors++ }
+        END {
+            n = NR
+            p50 = t[int(n * 0.50) > 0 ? int(n * 0.50) : 1] * 1000
+            p99 = t[int(n * 0.99) > 0 ? int(n * 0.99) : 1] * 1000
+            printf "%-12d %-10d %-10d %-10.1f %-10.0f %-10.0f\n", c, n, errors, n / (end - start), p50, p99
+        }'
+
+    # Let queued requests and Tomcat connections drain before the next level
+    sleep 2
+done
@@ -0,0 +1,27 @@
+#!/bin/sh
+# FoodFast Menu Benchmark
+# Menu throughput (GET /api/products) with and without the product catalog cache,
+# measured with load-test.sh.
+#
+#   1. Without cache:  mvn spring-boot:run -Dspring-boot.run.arguments=--foodfast.catalog.cache.enabled=false
+#                      ./menu-benchmark.sh > menu-uncached.txt
+#   2. With cache:     mvn spring-boot:run
+#                      ./menu-benchmark.sh > menu-cached.txt
+#   3. Compare req/s and p99 per concurrency level.
+#
+# Settings (environment): BASE_URL (http://localhost:8080), RESTAURANT (SweetDreams; empty
+# benchmarks the unfiltered product list), LEVELS ("25 50 100 200"), REQUESTS_PER_CLIENT (50).
+
+RESTAURANT=${RESTAURANT-SweetDreams}
+if [ -n "$RESTAURANT" ]; then
+    URL_PATH="/api/products?restaurant=$RESTAURANT"
+else
+    URL_PATH="/api/products"
+fi
+
+export BASE_URL URL_PATH
+export LEVELS=${LEVELS:-"25 50 100 200"}
+export REQUESTS_PER_CLIENT=${REQUESTS_PER_CLIENT:-50}
+
+echo "Menu benchmark: $URL_PATH"
+exec "$(dirname "$0")/load-test.sh"
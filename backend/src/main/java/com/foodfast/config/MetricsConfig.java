@@ -0,0 +1,46 @@
+package com.foodfast.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Metrics Configuration
+ * Queue depth and active threads of the STOMP inbound, outbound and broker channel executors.
+ * Gauges are sampled on scrape, so they add nothing to the message path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder stompChannelMetrics(
+            @Qualifier("clientInboundChannelExecutor") Executor inbound,
+            @Qualifier("clientOutboundChannelExecutor") Executor outbound,
+            @Qualifier("brokerChannelExecutor") Executor broker) {
+        return registry -> {
+            bindExecutor(registry, "inbound", inbound);
+            bindExecutor(registry, "outbound", outbound);
+            bindExecutor(registry, "broker", broker);
+        };
+    }
+
+    private static void bindExecutor(MeterRegistry registry, String channel, Executor executor) {
+        if (!(executor instanceof ThreadPoolTaskExecutor pool)) {
+            return;
+        }
+        Gauge.builder("foodfast.stomp.channel.queue", pool, p -> p.getThreadPoolExecutor().getQueue().size())
+                .description("Messages waiting in the STOMP channel executor queue")
+                .tag("channel", channel)
+                .register(registry);
+        Gauge.builder("foodfast.stomp.channel.active", pool, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Busy threads of the STOMP channel executor")
+                .tag("channel", channel)
+                .register(registry);
+    }
+}
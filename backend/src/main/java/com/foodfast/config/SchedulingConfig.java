@@ -0,0 +1,40 @@
+package com.foodfast.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduling Configuration
+ * Background jobs (cart write-behind, eviction, ...) get their own scheduler so they
+ * never share the STOMP broker's heartbeat scheduler. This bean replaces Boot's
+ * auto-configured scheduler, so it follows spring.threads.virtual.enabled itself.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public TaskScheduler taskScheduler(
+            @Value("${foodfast.scheduler.pool-size:4}") int poolSize,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            // Each run gets its own virtual thread, so jobs that block on JDBC
+            // (write-behind, retention, reconcile) park instead of holding a carrier
+            SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+            scheduler.setVirtualThreads(true);
+            scheduler.setThreadNamePrefix("foodfast-sched-");
+            scheduler.setTaskTerminationTimeout(30_000);
+            return scheduler;
+        }
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("foodfast-sched-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        return scheduler;
+    }
+}
@@ -0,0 +1,359 @@
+package com.foodfast.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Slow Consumer Guard
+ * Counts, per WebSocket session, messages accepted on the client outbound channel that
+ * have not been written to the socket yet (executor queue plus the session's send buffer).
+ * Once a session has more than max-pending messages in flight it is lagging, and new
+ * messages for it are handled by the configured SlowConsumerPolicy instead of piling up
+ * behind it. Registered as an outbound channel interceptor and a transport decorator.
+ * Parked messages are re-sent from a dedicated thread, never from a socket write or a
+ * preSend call, so a full outbound channel cannot fail an unrelated send.
+ */
+@Component
+public class SlowConsumerGuard implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowConsumerGuard.class);
+
+    private final ConcurrentHashMap<String, SessionState> sessions = new ConcurrentHashMap<>();
+
+    private final SlowConsumerPolicy policy;
+    private final int maxPending;
+    private final int resumePending;
+
+    private final Counter droppedCounter;
+    private final Counter conflatedCounter;
+    private final Counter disconnectedCounter;
+
+    private final ExecutorService releaseExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stomp-release");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SlowConsumerGuard(
+            MeterRegistry meterRegistry,
+            @Value("${foodfast.websocket.slow-consumer.policy:CONFLATE}") String policy,
+            @Value("${foodfast.websocket.slow-consumer.max-pending:200}") int maxPending,
+            @Value("${foodfast.websocket.slow-consumer.resume-pending:50}") int resumePending) {
+        this.policy = SlowConsumerPolicy.valueOf(policy.trim().toUpperCase(Locale.ROOT));
+        this.maxPending = maxPending;
+        this.resumePending = Math.min(resumePending, maxPending);
+
+        this.droppedCounter = actionCounter(meterRegistry, "dropped");
+        this.conflatedCounter = actionCounter(meterRegistry, "conflated");
+        this.disconnectedCounter = actionCounter(meterRegistry, "disconnected");
+        Gauge.builder("foodfast.stomp.sessions.lagging", sessions,
+                        map -> map.values().stream().filter(SessionState::isLagging).count())
+                .description("WebSocket sessions over the slow-consumer threshold")
+                .register(meterRegistry);
+        Gauge.builder("foodfast.stomp.sessions.pending.max", sessions,
+                        map -> map.values().stream().mapToInt(s -> s.pending.get()).max().orElse(0))
+                .description("Largest number of undelivered outbound messages for any session")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        releaseExecutor.shutdownNow();
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionState state = new SessionState(session);
+                sessions.put(session.getId(), state);
+                super.afterConnectionEstablished(new TrackingSession(session, state));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        SessionState state = sessionId != null ? sessions.get(sessionId) : null;
+        if (state == null) {
+            return message;
+        }
+        // Only broker MESSAGE frames are subject to the policy; CONNECTED, RECEIPT,
+        // ERROR and heartbeats always go through
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            state.enqueued();
+            return message;
+        }
+        state.outboundChannel = channel;
+
+        if (policy == SlowConsumerPolicy.CONFLATE) {
+            // While anything is parked, newer messages must not overtake the parked ones
+            state.lock.lock();
+            try {
+                if (state.pending.get() < maxPending && state.parked.isEmpty()) {
+                    state.enqueued();
+                    return message;
+                }
+                String destination = SimpMessageHeaderAccessor.getDestination(headers);
+                if (destination == null) {
+                    state.dropped.incrementAndGet();
+                    droppedCounter.increment();
+                } else if (state.parked.put(destination, message) != null) {
+                    state.conflated.incrementAndGet();
+                    conflatedCounter.increment();
+                }
+                // Drained meanwhile and no send is left in flight to trigger the release
+                scheduleRelease(state);
+                return null;
+            } finally {
+                state.lock.unlock();
+            }
+        }
+
+        if (state.pending.get() < maxPending) {
+            state.enqueued();
+            return message;
+        }
+        if (policy == SlowConsumerPolicy.DROP) {
+            state.dropped.incrementAndGet();
+            droppedCounter.increment();
+        } else if (state.closing.compareAndSet(false, true)) {
+            disconnectedCounter.increment();
+            try {
+                state.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.warn("Failed to close session {}: {}", sessionId, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A message counted in preSend that the channel did not accept (outbound executor
+     * full, or a later interceptor dropped it) will never reach the socket: un-count it,
+     * or the session would stay lagging for good
+     */
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (sent && ex == null) {
+            return;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SessionState state = sessionId != null ? sessions.get(sessionId) : null;
+        if (state != null) {
+            state.rejected();
+            scheduleRelease(state);
+        }
+    }
+
+    /**
+     * Sessions currently over the max-pending threshold, most backed up first
+     */
+    public List<Map<String, Object>> getLaggingSessions() {
+        long now = System.currentTimeMillis();
+        List<SessionState> lagging = new ArrayList<>();
+        for (SessionState state : sessions.values()) {
+            if (state.isLagging()) {
+                lagging.add(state);
+            }
+        }
+        lagging.sort(Comparator.comparingInt((SessionState s) -> s.pending.get()).reversed());
+
+        List<Map<String, Object>> result = new ArrayList<>(lagging.size());
+        for (SessionState state : lagging) {
+            result.add(state.describe(now));
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        int lagging = 0;
+        for (SessionState state : sessions.values()) {
+            if (state.isLagging()) {
+                lagging++;
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("policy", policy.name());
+        stats.put("maxPending", maxPending);
+        stats.put("resumePending", resumePending);
+        stats.put("sessions", sessions.size());
+        stats.put("laggingSessions", lagging);
+        stats.put("dropped", (long) droppedCounter.count());
+        stats.put("conflated", (long) conflatedCounter.count());
+        stats.put("disconnected", (long) disconnectedCounter.count());
+        return stats;
+    }
+
+    private static Counter actionCounter(MeterRegistry registry, String action) {
+        return Counter.builder("foodfast.stomp.slow_consumer")
+                .description("Outbound messages handled by the slow-consumer policy")
+                .tag("action", action)
+                .register(registry);
+    }
+
+    /**
+     * Re-send parked (conflated) messages once the session has drained below resume-pending.
+     * They pass through preSend again, so a session that falls behind again is re-parked.
+     * At most one release per session is queued at a time.
+     */
+    private void scheduleRelease(SessionState state) {
+        if (state.outboundChannel == null || state.parked.isEmpty() || state.pending.get() > resumePending) {
+            return;
+        }
+        if (!state.releaseScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            releaseExecutor.execute(() -> release(state));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            state.releaseScheduled.set(false);
+        }
+    }
+
+    private void release(SessionState state) {
+        state.releaseScheduled.set(false);
+        state.lock.lock();
+        try {
+            if (state.pending.get() > resumePending) {
+                // Fell behind again; the next completed send schedules another release
+                return;
+            }
+            List<Message<?>> released = new ArrayList<>(state.parked.values());
+            state.parked.clear();
+            for (int i = 0; i < released.size(); i++) {
+                try {
+                    state.outboundChannel.send(released.get(i));
+                } catch (RuntimeException e) {
+                    // Outbound executor saturated: the rest of the parked messages are lost
+                    int lost = released.size() - i;
+                    state.dropped.addAndGet(lost);
+                    droppedCounter.increment(lost);
+                    log.warn("Dropped {} parked messages for session {}: {}", lost, state.session.getId(), e.getMessage());
+                    return;
+                }
+            }
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    private class TrackingSession extends WebSocketSessionDecorator {
+
+        private final SessionState state;
+
+        TrackingSession(WebSocketSession delegate, SessionState state) {
+            super(delegate);
+            this.state = state;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                state.sent();
+                scheduleRelease(state);
+            }
+        }
+    }
+
+    private class SessionState {
+        final WebSocketSession session;
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicInteger peakPending = new AtomicInteger();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong conflated = new AtomicLong();
+        final AtomicBoolean closing = new AtomicBoolean();
+        final AtomicBoolean releaseScheduled = new AtomicBoolean();
+        final ReentrantLock lock = new ReentrantLock();
+        // destination -> newest message not yet delivered (CONFLATE only); changed only under lock
+        final ConcurrentHashMap<String, Message<?>> parked = new ConcurrentHashMap<>();
+        final long connectedAt = System.currentTimeMillis();
+        volatile long lastSentAt = connectedAt;
+        volatile MessageChannel outboundChannel;
+
+        SessionState(WebSocketSession session) {
+            this.session = session;
+        }
+
+        void enqueued() {
+            peakPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+        }
+
+        void sent() {
+            // Frames written without passing the outbound channel must not drive this negative
+            pending.updateAndGet(value -> Math.max(0, value - 1));
+            lastSentAt = System.currentTimeMillis();
+        }
+
+        void rejected() {
+            pending.updateAndGet(value -> Math.max(0, value - 1));
+        }
+
+        boolean isLagging() {
+            return pending.get() >= maxPending || !parked.isEmpty();
+        }
+
+        Map<String, Object> describe(long now) {
+            Principal user = session.getPrincipal();
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("sessionId", session.getId());
+            info.put("user", user != null ? user.getName() : null);
+            info.put("pending", pending.get());
+            info.put("peakPending", peakPending.get());
+            info.put("parked", parked.size());
+            info.put("dropped", dropped.get());
+            info.put("conflated", conflated.get());
+            info.put("msSinceLastSend", now - lastSentAt);
+            info.put("connectedForMs", now - connectedAt);
+            return info;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.foodfast.config;
+
+/**
+ * What to do with new messages for a WebSocket session that is not keeping up
+ */
+public enum SlowConsumerPolicy {
+    /** Discard new messages until the session catches up */
+    DROP,
+    /** Keep only the newest message per destination and deliver it once the session catches up */
+    CONFLATE,
+    /** Close the session; the client reconnects and reloads state over REST */
+    DISCONNECT
+}
@@ -0,0 +1,38 @@
+package com.foodfast.config;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Assigns a STOMP user to every WebSocket session so /user/queue/** destinations work
+ * without a login: the authenticated principal if there is one, else the HTTP session id
+ * (the same owner CartController uses). A client cannot pick its own user name, so it
+ * cannot subscribe to someone else's user destinations.
+ */
+public class StompPrincipalHandshakeHandler extends DefaultHandshakeHandler {
+
+    @Override
+    protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Principal authenticated = super.determineUser(request, wsHandler, attributes);
+        if (authenticated != null) {
+            return authenticated;
+        }
+
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            // Created here if needed, so later cart requests with the same cookie share it
+            HttpSession session = servletRequest.getServletRequest().getSession(true);
+            return named(session.getId());
+        }
+        return null;
+    }
+
+    private Principal named(String name) {
+        return () -> name;
+    }
+}
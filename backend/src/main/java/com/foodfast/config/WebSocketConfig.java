@@ -1,6 +1,8 @@
 package com.foodfast.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
 
@@ -8,10 +10,47 @@ import org.springframework.web.socket.config.annotation.*;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final SlowConsumerGuard slowConsumerGuard;
+
+    @Value("${foodfast.websocket.inbound.core-pool-size:4}")
+    private int inboundCorePoolSize;
+    @Value("${foodfast.websocket.inbound.max-pool-size:16}")
+    private int inboundMaxPoolSize;
+    @Value("${foodfast.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${foodfast.websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+    @Value("${foodfast.websocket.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+    @Value("${foodfast.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${foodfast.websocket.broker.core-pool-size:2}")
+    private int brokerCorePoolSize;
+    @Value("${foodfast.websocket.broker.max-pool-size:4}")
+    private int brokerMaxPoolSize;
+    @Value("${foodfast.websocket.broker.queue-capacity:10000}")
+    private int brokerQueueCapacity;
+
+    // Per-session transport limits: a client that cannot take a frame within the time
+    // limit, or lets more than the buffer limit queue up, is disconnected
+    @Value("${foodfast.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+    @Value("${foodfast.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+    @Value("${foodfast.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    public WebSocketConfig(SlowConsumerGuard slowConsumerGuard) {
+        this.slowConsumerGuard = slowConsumerGuard;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")   // allow mobile + LAN + localhost
+                .setHandshakeHandler(new StompPrincipalHandshakeHandler())   // per-user /user/queue/** routing
                 .withSockJS();
     }
 
@@ -19,5 +58,34 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.enableSimpleBroker("/topic", "/queue");
         registry.setApplicationDestinationPrefixes("/app");
+        registry.configureBrokerChannel().taskExecutor()
+                .corePoolSize(brokerCorePoolSize)
+                .maxPoolSize(brokerMaxPoolSize)
+                .queueCapacity(brokerQueueCapacity);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+        registration.interceptors(slowConsumerGuard);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(slowConsumerGuard);
     }
 }
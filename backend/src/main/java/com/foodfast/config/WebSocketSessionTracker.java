@@ -0,0 +1,47 @@
+package com.foodfast.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket Session Tracker
+ * Keeps the ids of connected STOMP sessions and exposes their count as a gauge.
+ * A set (not a counter) so duplicate disconnect events cannot drive the count negative.
+ */
+@Component
+public class WebSocketSessionTracker implements MeterBinder {
+
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = (String) event.getMessage().getHeaders().get("simpSessionId");
+        if (sessionId != null) {
+            sessions.add(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("foodfast.stomp.sessions", sessions, Set::size)
+                .description("Connected STOMP sessions")
+                .register(registry);
+    }
+}
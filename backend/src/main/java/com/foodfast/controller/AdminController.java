@@ -8,14 +8,21 @@ import com.foodfast.repository.DroneRepository;
 import com.foodfast.repository.OrderRepository;
 import com.foodfast.repository.RestaurantRepository;
 import com.foodfast.repository.UserRepository;
+import com.foodfast.service.ChargingScheduler;
+import com.foodfast.service.RestaurantService;
+import com.foodfast.service.RoutePlanner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.*;
@@ -37,23 +44,37 @@ import java.util.stream.Collectors;
 })
 public class AdminController {
 
+    private static final int MAX_BENCHMARK_ROUTES = 1_000;
+
     private final RestaurantRepository restaurantRepository;
     private final UserRepository userRepository;
     private final DroneRepository droneRepository;
     private final OrderRepository orderRepository;
     private final com.foodfast.service.AuthService authService;
+    private final RestaurantService restaurantService;
+    private final ChargingScheduler chargingScheduler;
+    private final RoutePlanner routePlanner;
+    private final boolean routingBenchmarkEnabled;
 
     public AdminController(
             RestaurantRepository restaurantRepository,
             UserRepository userRepository,
             DroneRepository droneRepository,
             OrderRepository orderRepository,
-            com.foodfast.service.AuthService authService) {
+            com.foodfast.service.AuthService authService,
+            RestaurantService restaurantService,
+            ChargingScheduler chargingScheduler,
+            RoutePlanner routePlanner,
+            @Value("${foodfast.routing.benchmark.enabled:false}") boolean routingBenchmarkEnabled) {
         this.restaurantRepository = restaurantRepository;
         this.userRepository = userRepository;
         this.droneRepository = droneRepository;
         this.orderRepository = orderRepository;
         this.authService = authService;
+        this.restaurantService = restaurantService;
+        this.chargingScheduler = chargingScheduler;
+        this.routePlanner = routePlanner;
+        this.routingBenchmarkEnabled = routingBenchmarkEnabled;
     }
 
     /**
@@ -124,8 +145,8 @@ public class AdminController {
             } else if (isActiveObj instanceof String) {
                 restaurant.setIsActive(Boolean.parseBoolean((String) isActiveObj));
             }
-            restaurantRepository.save(restaurant);
-            return ResponseEntity.ok(restaurant);
+            Restaurant saved = restaurantService.save(restaurant);
+            return ResponseEntity.ok(saved);
         }
 
         return ResponseEntity.badRequest().body(Map.of("error", "isActive field required"));
@@ -280,10 +301,42 @@ public class AdminController {
             adminDrone.put("lastMaintenance", drone.getLastMaintenance() != null ? drone.getLastMaintenance() : System.currentTimeMillis());
             adminDrone.put("flaggedForIssue", drone.getFlaggedForIssue() != null ? drone.getFlaggedForIssue() : false);
             adminDrone.put("issueDescription", drone.getIssueDescription());
+            // Predicted range and charging slot/queue (null until the drone has reported telemetry)
+            adminDrone.put("charging", chargingScheduler.describe(drone.getId()));
             return adminDrone;
         }).collect(Collectors.toList());
         
         return ResponseEntity.ok(adminDrones);
     }
-}
 
+    /**
+     * GET /api/admin/charging
+     * Charging plan per restaurant: occupied slots, queue in charging order, ready drones vs. forecast demand
+     */
+    @GetMapping("/charging")
+    public ResponseEntity<List<Map<String, Object>>> getChargingPlan() {
+        return ResponseEntity.ok(chargingScheduler.getPlan());
+    }
+
+    /**
+     * POST /api/admin/routing/benchmark?routes=200&seed=42
+     * Plans routes between random points of the grid, bypassing the cache, and reports routes
+     * per second. Off unless foodfast.routing.benchmark.enabled; one run at a time.
+     */
+    @PostMapping("/routing/benchmark")
+    public ResponseEntity<Map<String, Object>> benchmarkRouting(
+            @RequestParam(defaultValue = "200") int routes,
+            @RequestParam(defaultValue = "42") long seed) {
+        if (!routingBenchmarkEnabled) {
+            return ResponseEntity.notFound().build();
+        }
+        if (routes < 1 || routes > MAX_BENCHMARK_ROUTES) {
+            return ResponseEntity.badRequest().body(Map.of("error", "routes must be between 1 and " + MAX_BENCHMARK_ROUTES));
+        }
+        try {
+            return ResponseEntity.ok(routePlanner.benchmark(routes, seed));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
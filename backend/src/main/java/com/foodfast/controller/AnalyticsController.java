@@ -2,6 +2,7 @@ package com.foodfast.controller;
 
 import com.foodfast.entity.Analytics;
 import com.foodfast.service.AnalyticsService;
+import com.foodfast.service.DemandForecaster;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -29,10 +30,14 @@ import java.util.Optional;
 })
 public class AnalyticsController {
 
+    private static final int MAX_FORECAST_SLOTS = 4 * DemandForecaster.SEASON_SLOTS;
+
     private final AnalyticsService analyticsService;
+    private final DemandForecaster demandForecaster;
 
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService, DemandForecaster demandForecaster) {
         this.analyticsService = analyticsService;
+        this.demandForecaster = demandForecaster;
     }
 
     /**
@@ -77,5 +82,19 @@ public class AnalyticsController {
                     .body(Map.of("error", "Failed to get overview: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * GET /api/analytics/restaurant/{restaurantId}/forecast?slots=8
+     * Expected order count for the next 15-minute slots, starting with the current one
+     */
+    @GetMapping("/restaurant/{restaurantId}/forecast")
+    public ResponseEntity<?> getDemandForecast(
+            @PathVariable String restaurantId,
+            @RequestParam(defaultValue = "8") int slots) {
+        if (slots < 1 || slots > MAX_FORECAST_SLOTS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "slots must be between 1 and " + MAX_FORECAST_SLOTS));
+        }
+        return ResponseEntity.ok(demandForecaster.getForecast(restaurantId, slots));
+    }
+}
@@ -1,8 +1,10 @@
 package com.foodfast.controller;
 
+import com.foodfast.dto.CartDiff;
 import com.foodfast.entity.CartItem;
-import com.foodfast.repository.CartItemRepository;
+import com.foodfast.service.CartStore;
 import com.foodfast.service.RealtimeService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -30,51 +33,71 @@ import java.util.List;
 })
 public class CartController {
 
-    private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
     private final RealtimeService realtimeService;
 
-    public CartController(CartItemRepository cartItemRepository, RealtimeService realtimeService) {
-        this.cartItemRepository = cartItemRepository;
+    public CartController(CartStore cartStore, RealtimeService realtimeService) {
+        this.cartStore = cartStore;
         this.realtimeService = realtimeService;
     }
 
+    /**
+     * Carts are per owner: the authenticated user, falling back to the HTTP session.
+     * Realtime diffs go to the same owner on /user/queue/cart.
+     */
     @GetMapping
-    public List<CartItem> getCart() {
-        return cartItemRepository.findAll();
+    public List<CartItem> getCart(HttpServletRequest request) {
+        return cartStore.getItems(resolveOwner(request));
     }
 
     @PostMapping("/add")
-    public ResponseEntity<List<CartItem>> addToCart(@Valid @RequestBody AddCartItemRequest request) {
+    public ResponseEntity<List<CartItem>> addToCart(
+            @Valid @RequestBody AddCartItemRequest body,
+            HttpServletRequest request) {
+        String ownerId = resolveOwner(request);
+
         CartItem item = new CartItem();
-        item.setProductId(request.getProductId());
-        item.setProductName(request.getProductName());
-        item.setUnitPrice(request.getUnitPrice());
-        item.setQuantity(request.getQuantity());
-        item.setRestaurantCode(request.getRestaurantCode());
-
-        cartItemRepository.save(item);
-        List<CartItem> updatedCart = cartItemRepository.findAll();
-        realtimeService.sendCartUpdate(updatedCart);
-        return ResponseEntity.ok(updatedCart);
+        item.setProductId(body.getProductId());
+        item.setProductName(body.getProductName());
+        item.setUnitPrice(body.getUnitPrice());
+        item.setQuantity(body.getQuantity());
+        item.setRestaurantCode(body.getRestaurantCode());
+
+        CartDiff diff = cartStore.add(ownerId, item);
+        realtimeService.sendCartDiff(ownerId, diff);
+        return ResponseEntity.ok(cartStore.getItems(ownerId));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<List<CartItem>> removeFromCart(@PathVariable Long id) {
-        if (!cartItemRepository.existsById(id)) {
+    public ResponseEntity<List<CartItem>> removeFromCart(
+            @PathVariable Long id,
+            HttpServletRequest request) {
+        String ownerId = resolveOwner(request);
+        CartDiff diff = cartStore.remove(ownerId, id);
+        if (diff == null) {
             return ResponseEntity.notFound().build();
         }
-        cartItemRepository.deleteById(id);
-        List<CartItem> updatedCart = cartItemRepository.findAll();
-        realtimeService.sendCartUpdate(updatedCart);
-        return ResponseEntity.ok(updatedCart);
+        realtimeService.sendCartDiff(ownerId, diff);
+        return ResponseEntity.ok(cartStore.getItems(ownerId));
     }
 
     @DeleteMapping("/clear")
-    public ResponseEntity<List<CartItem>> clearCart() {
-        cartItemRepository.deleteAll();
-        List<CartItem> updatedCart = cartItemRepository.findAll();
-        realtimeService.sendCartUpdate(updatedCart);
-        return ResponseEntity.ok(updatedCart);
+    public ResponseEntity<List<CartItem>> clearCart(HttpServletRequest request) {
+        String ownerId = resolveOwner(request);
+        CartDiff diff = cartStore.clear(ownerId);
+        realtimeService.sendCartDiff(ownerId, diff);
+        return ResponseEntity.ok(List.of());
+    }
+
+    /**
+     * The authenticated user, else the HTTP session; never anything the client names itself
+     */
+    private String resolveOwner(HttpServletRequest request) {
+        Principal user = request.getUserPrincipal();
+        if (user != null) {
+            return user.getName();
+        }
+        return request.getSession(true).getId();
     }
 
     public static class AddCartItemRequest {
@@ -1,13 +1,17 @@
 package com.foodfast.controller;
 
+import com.foodfast.dto.DronePatch;
 import com.foodfast.entity.Drone;
 import com.foodfast.repository.DroneRepository;
+import com.foodfast.repository.PartialUpdateRepository;
+import com.foodfast.service.RealtimeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -26,9 +30,24 @@ import java.util.Optional;
 public class DroneController {
 
     private final DroneRepository droneRepository;
+    private final PartialUpdateRepository partialUpdateRepository;
+    private final RealtimeService realtimeService;
+    private final Counter updateCounter;
+    private final Counter updateNotFoundCounter;
 
-    public DroneController(DroneRepository droneRepository) {
+    public DroneController(DroneRepository droneRepository, PartialUpdateRepository partialUpdateRepository,
+                           RealtimeService realtimeService, MeterRegistry meterRegistry) {
         this.droneRepository = droneRepository;
+        this.partialUpdateRepository = partialUpdateRepository;
+        this.realtimeService = realtimeService;
+        this.updateCounter = Counter.builder("foodfast.drones.updates")
+                .description("Drone PATCH updates applied")
+                .tag("result", "applied")
+                .register(meterRegistry);
+        this.updateNotFoundCounter = Counter.builder("foodfast.drones.updates")
+                .description("Drone PATCH updates for unknown drones")
+                .tag("result", "not_found")
+                .register(meterRegistry);
     }
 
     /**
@@ -62,113 +81,29 @@ public class DroneController {
     /**
      * PATCH /api/drones/{id}
      * Update drone properties (status, battery, position, etc.)
-     * Matches frontend patchDrone function
+     * Matches frontend patchDrone function; only the fields present in the body are written
      */
     @PatchMapping("/{id}")
     public ResponseEntity<?> updateDrone(
             @PathVariable String id,
-            @RequestBody Map<String, Object> updates) {
-        Optional<Drone> droneOpt = droneRepository.findById(id);
-        if (droneOpt.isEmpty()) {
+            @RequestBody DronePatch patch) {
+        if (!patch.isEmpty()
+                && partialUpdateRepository.update(Drone.class, id, patch.getAssignments(), false, null) == 0) {
+            updateNotFoundCounter.increment();
             return ResponseEntity.notFound().build();
         }
 
-        Drone drone = droneOpt.get();
-
-        if (updates.containsKey("status")) {
-            String statusValue = String.valueOf(updates.get("status"));
-            // Map frontend status to backend status
-            String backendStatus = switch (statusValue.toLowerCase()) {
-                case "delivering" -> "Delivering";
-                case "arrived" -> "Idle";
-                case "returning" -> "Idle";
-                default -> statusValue;
-            };
-            drone.setStatus(backendStatus);
-        }
-        if (updates.containsKey("battery")) {
-            Object batteryObj = updates.get("battery");
-            if (batteryObj instanceof Number) {
-                drone.setBattery(((Number) batteryObj).intValue());
-            }
-        }
-        if (updates.containsKey("batteryLevel")) {
-            Object batteryObj = updates.get("batteryLevel");
-            if (batteryObj instanceof Number) {
-                drone.setBatteryLevel(((Number) batteryObj).intValue());
-            }
-        }
-        if (updates.containsKey("currentOrderId")) {
-            Object orderIdObj = updates.get("currentOrderId");
-            drone.setCurrentOrderId(orderIdObj != null ? String.valueOf(orderIdObj) : null);
-        }
-        if (updates.containsKey("orderId")) {
-            // Support orderId alias for frontend compatibility
-            Object orderIdObj = updates.get("orderId");
-            drone.setCurrentOrderId(orderIdObj != null ? String.valueOf(orderIdObj) : null);
-        }
-        if (updates.containsKey("droneCode")) {
-            drone.setDroneCode(String.valueOf(updates.get("droneCode")));
-        }
-        if (updates.containsKey("position")) {
-            Object positionObj = updates.get("position");
-            if (positionObj instanceof Map) {
-                Map<?, ?> positionMap = (Map<?, ?>) positionObj;
-                Object latObj = positionMap.get("lat");
-                Object lngObj = positionMap.get("lng");
-                if (latObj instanceof Number && lngObj instanceof Number) {
-                    drone.setPositionLat(((Number) latObj).doubleValue());
-                    drone.setPositionLng(((Number) lngObj).doubleValue());
-                }
-            }
-        }
-        if (updates.containsKey("speedMps")) {
-            Object speedObj = updates.get("speedMps");
-            if (speedObj instanceof Number) {
-                drone.setSpeedMps(((Number) speedObj).doubleValue());
-            }
-        }
-        if (updates.containsKey("updatedAt")) {
-            Object updatedAtObj = updates.get("updatedAt");
-            if (updatedAtObj instanceof Number) {
-                drone.setUpdatedAt(((Number) updatedAtObj).longValue());
-            } else if (updatedAtObj instanceof String) {
-                try {
-                    drone.setUpdatedAt(Long.parseLong((String) updatedAtObj));
-                } catch (NumberFormatException e) {
-                    drone.setUpdatedAt(System.currentTimeMillis());
-                }
-            } else {
-                drone.setUpdatedAt(System.currentTimeMillis());
-            }
-        }
-        if (updates.containsKey("restaurantId")) {
-            drone.setRestaurantId(String.valueOf(updates.get("restaurantId")));
-        }
-        if (updates.containsKey("restaurantName")) {
-            drone.setRestaurantName(String.valueOf(updates.get("restaurantName")));
-        }
-        if (updates.containsKey("lastMaintenance")) {
-            Object maintenanceObj = updates.get("lastMaintenance");
-            if (maintenanceObj instanceof Number) {
-                drone.setLastMaintenance(((Number) maintenanceObj).longValue());
-            }
-        }
-        if (updates.containsKey("flaggedForIssue")) {
-            Object flaggedObj = updates.get("flaggedForIssue");
-            if (flaggedObj instanceof Boolean) {
-                drone.setFlaggedForIssue((Boolean) flaggedObj);
-            } else if (flaggedObj instanceof String) {
-                drone.setFlaggedForIssue(Boolean.parseBoolean((String) flaggedObj));
-            }
+        // Re-read once: telemetry listeners and the response need the whole drone
+        Optional<Drone> saved = droneRepository.findById(id);
+        if (saved.isEmpty()) {
+            updateNotFoundCounter.increment();
+            return ResponseEntity.notFound().build();
         }
-        if (updates.containsKey("issueDescription")) {
-            Object issueObj = updates.get("issueDescription");
-            drone.setIssueDescription(issueObj != null ? String.valueOf(issueObj) : null);
+        if (!patch.isEmpty()) {
+            updateCounter.increment();
+            realtimeService.sendDroneUpdate(saved.get());
         }
-
-        Drone saved = droneRepository.save(drone);
-        return ResponseEntity.ok(saved);
+        return ResponseEntity.ok(saved.get());
     }
 }
 
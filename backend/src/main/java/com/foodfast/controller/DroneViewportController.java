@@ -0,0 +1,49 @@
+package com.foodfast.controller;
+
+import com.foodfast.dto.DroneViewport;
+import com.foodfast.service.DronePositionPublisher;
+import com.foodfast.service.DroneViewportIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Drone Viewport Controller
+ * STOMP endpoint for live-map clients: SEND /app/drone/viewport with the visible bounding
+ * box whenever the map moves, and SUBSCRIBE /user/queue/drone to receive only the drones
+ * inside it. The drones already inside a new viewport are sent right away.
+ */
+@Controller
+public class DroneViewportController {
+
+    private static final Logger log = LoggerFactory.getLogger(DroneViewportController.class);
+
+    private final DroneViewportIndex droneViewportIndex;
+    private final DronePositionPublisher dronePositionPublisher;
+
+    public DroneViewportController(DroneViewportIndex droneViewportIndex, DronePositionPublisher dronePositionPublisher) {
+        this.droneViewportIndex = droneViewportIndex;
+        this.dronePositionPublisher = dronePositionPublisher;
+    }
+
+    @MessageMapping("/drone/viewport")
+    public void updateViewport(@Payload DroneViewport viewport, SimpMessageHeaderAccessor headers) {
+        String sessionId = headers.getSessionId();
+        if (sessionId == null) {
+            return;
+        }
+        try {
+            droneViewportIndex.update(sessionId, viewport);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected viewport from session {}: {}", sessionId, e.getMessage());
+            return;
+        }
+        if (viewport != null && !viewport.isEmpty()) {
+            droneViewportIndex.sendTo(sessionId, dronePositionPublisher.getLastKnownWithin(viewport),
+                    System.currentTimeMillis());
+        }
+    }
+}
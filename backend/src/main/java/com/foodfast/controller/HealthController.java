@@ -1,5 +1,8 @@
 package com.foodfast.controller;
 
+import com.foodfast.service.HealthService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -7,14 +10,41 @@ import java.util.Map;
 
 /**
  * Health Check Controller
- * Provides health check endpoint for monitoring and testing
+ * Provides health check endpoints for monitoring, testing and load balancer probes
  */
 @RestController
 public class HealthController {
+
+    private final HealthService healthService;
+
+    public HealthController(HealthService healthService) {
+        this.healthService = healthService;
+    }
     
     @GetMapping("/api/health")
     public Map<String, String> health() {
         return Map.of("status", "UP");
     }
-}
 
+    /**
+     * GET /api/health/live
+     * Liveness probe: 200 while the process can serve requests
+     */
+    @GetMapping("/api/health/live")
+    public Map<String, Object> live() {
+        return healthService.liveness();
+    }
+
+    /**
+     * GET /api/health/ready
+     * Readiness probe: 200 when database, broker and pools are healthy, 503 under backpressure
+     */
+    @GetMapping("/api/health/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        Map<String, Object> readiness = healthService.readiness();
+        HttpStatus status = HealthService.UP.equals(readiness.get("status"))
+                ? HttpStatus.OK
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(readiness);
+    }
+}
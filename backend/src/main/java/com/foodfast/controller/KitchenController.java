@@ -0,0 +1,49 @@
+package com.foodfast.controller;
+
+import com.foodfast.service.KitchenQueue;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Kitchen Controller
+ * Ranked queue of a restaurant's active orders; rank changes are pushed to /topic/kitchen/{restaurantId}
+ */
+@RestController
+@RequestMapping("/api/kitchen")
+@CrossOrigin(origins = {
+        "http://localhost:5173",
+        "http://192.168.0.100:5173",
+        "http://192.168.0.100:5174",
+        "http://192.168.0.100:5175",
+        "http://localhost:8081",
+        "http://192.168.0.100:8081",
+        "exp://localhost:8081",
+        "exp://192.168.0.100:8081"
+})
+public class KitchenController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final KitchenQueue kitchenQueue;
+
+    public KitchenController(KitchenQueue kitchenQueue) {
+        this.kitchenQueue = kitchenQueue;
+    }
+
+    /**
+     * GET /api/kitchen/{restaurantId}/queue?limit=50
+     * Active orders (Pending through Ready), most urgent first
+     */
+    @GetMapping("/{restaurantId}/queue")
+    public Map<String, Object> getQueue(
+            @PathVariable String restaurantId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return kitchenQueue.getQueue(restaurantId, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
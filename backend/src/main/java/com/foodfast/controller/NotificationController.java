@@ -1,18 +1,26 @@
 package com.foodfast.controller;
 
 import com.foodfast.entity.Notification;
+import com.foodfast.entity.NotificationDailySummary;
+import com.foodfast.service.NotificationPipeline;
+import com.foodfast.service.NotificationRetentionService;
 import com.foodfast.service.NotificationService;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * Notification Controller
@@ -29,72 +37,59 @@ import java.util.Map;
 })
 public class NotificationController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final NotificationService notificationService;
+    private final NotificationRetentionService notificationRetentionService;
+    private final NotificationPipeline notificationPipeline;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(
+            NotificationService notificationService,
+            NotificationRetentionService notificationRetentionService,
+            NotificationPipeline notificationPipeline) {
         this.notificationService = notificationService;
+        this.notificationRetentionService = notificationRetentionService;
+        this.notificationPipeline = notificationPipeline;
     }
 
     /**
      * GET /api/notifications/{restaurantId}
-     * Get all notifications for a restaurant (frontend-compatible path)
-     * Supports optional query parameter: ?unreadOnly=true
+     * Get notifications for a restaurant (frontend-compatible path), newest first
+     * Supports optional query parameters: ?unreadOnly=true&page=0&size=50
+     * New notifications are also pushed to /topic/notifications/{restaurantId}
      */
     @GetMapping("/{restaurantId}")
     public ResponseEntity<Map<String, Object>> getNotificationsByRestaurantId(
             @PathVariable String restaurantId,
-            @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "false") boolean unreadOnly) {
-        List<Notification> notifications;
-        if (unreadOnly) {
-            notifications = notificationService.getUnreadNotifications(restaurantId);
-        } else {
-            notifications = notificationService.getNotifications(restaurantId);
-        }
-        
-        long unreadCount = notificationService.getUnreadCount(restaurantId);
-        
-        // Return response matching frontend expectations
-        Map<String, Object> response = new HashMap<>();
-        response.put("notifications", notifications);
-        response.put("unreadCount", unreadCount);
-        response.put("total", notifications.size());
-        
-        return ResponseEntity.ok(response);
+            @RequestParam(required = false, defaultValue = "false") boolean unreadOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(buildPageResponse(restaurantId, unreadOnly, page, size));
     }
 
     /**
      * GET /api/notifications/restaurant/{restaurantId}
-     * Get all notifications for a restaurant (alternative path for backward compatibility)
+     * Get notifications for a restaurant (alternative path for backward compatibility)
      */
     @GetMapping("/restaurant/{restaurantId}")
     public ResponseEntity<Map<String, Object>> getNotifications(
             @PathVariable String restaurantId,
-            @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "false") boolean unreadOnly) {
-        List<Notification> notifications;
-        if (unreadOnly) {
-            notifications = notificationService.getUnreadNotifications(restaurantId);
-        } else {
-            notifications = notificationService.getNotifications(restaurantId);
-        }
-        
-        long unreadCount = notificationService.getUnreadCount(restaurantId);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("notifications", notifications);
-        response.put("unreadCount", unreadCount);
-        response.put("total", notifications.size());
-        
-        return ResponseEntity.ok(response);
+            @RequestParam(required = false, defaultValue = "false") boolean unreadOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(buildPageResponse(restaurantId, unreadOnly, page, size));
     }
 
     /**
      * GET /api/notifications/restaurant/{restaurantId}/unread
-     * Get unread notifications for a restaurant
+     * Get unread notifications for a restaurant, paginated like ?unreadOnly=true
      */
     @GetMapping("/restaurant/{restaurantId}/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotifications(@PathVariable String restaurantId) {
-        List<Notification> notifications = notificationService.getUnreadNotifications(restaurantId);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<Map<String, Object>> getUnreadNotifications(
+            @PathVariable String restaurantId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(buildPageResponse(restaurantId, true, page, size));
     }
 
     /**
@@ -116,5 +111,73 @@ public class NotificationController {
         notificationService.markAsRead(id);
         return ResponseEntity.ok(Map.of("message", "Notification marked as read"));
     }
-}
 
+    /**
+     * POST /api/notifications/restaurant/{restaurantId}/read
+     * Bulk mark as read in one UPDATE
+     * Body: {"ids": ["..."]} or {"upTo": 1700000000000} (everything up to that timestamp)
+     */
+    @PostMapping("/restaurant/{restaurantId}/read")
+    public ResponseEntity<Map<String, Object>> markAllAsRead(
+            @PathVariable String restaurantId,
+            @RequestBody Map<String, Object> body) {
+        List<String> ids = null;
+        Object idsObj = body.get("ids");
+        if (idsObj instanceof List) {
+            ids = ((List<?>) idsObj).stream()
+                    .filter(Objects::nonNull)
+                    .map(String::valueOf)
+                    .collect(Collectors.toList());
+        }
+        Long upTo = null;
+        Object upToObj = body.get("upTo");
+        if (upToObj instanceof Number) {
+            upTo = ((Number) upToObj).longValue();
+        }
+        if ((ids == null || ids.isEmpty()) && upTo == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "ids or upTo field required"));
+        }
+
+        int updated = notificationService.markAsRead(restaurantId, ids, upTo);
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", updated);
+        response.put("unreadCount", notificationService.getUnreadCount(restaurantId));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /api/notifications/restaurant/{restaurantId}/summaries
+     * Daily summaries of notifications removed by the retention job, newest day first
+     */
+    @GetMapping("/restaurant/{restaurantId}/summaries")
+    public ResponseEntity<List<NotificationDailySummary>> getDailySummaries(@PathVariable String restaurantId) {
+        return ResponseEntity.ok(notificationRetentionService.getSummaries(restaurantId));
+    }
+
+    /**
+     * GET /api/notifications/pipeline/stats
+     * Queue depth, lag and throughput of the async notification pipeline
+     */
+    @GetMapping("/pipeline/stats")
+    public ResponseEntity<Map<String, Object>> getPipelineStats() {
+        return ResponseEntity.ok(notificationPipeline.getStats());
+    }
+
+    private Map<String, Object> buildPageResponse(String restaurantId, boolean unreadOnly, int page, int size) {
+        int boundedPage = Math.max(page, 0);
+        int boundedSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Page<Notification> notifications = notificationService.getNotifications(
+                restaurantId, unreadOnly, boundedPage, boundedSize);
+
+        // Return response matching frontend expectations, plus paging metadata
+        Map<String, Object> response = new HashMap<>();
+        response.put("notifications", notifications.getContent());
+        response.put("unreadCount", notificationService.getUnreadCount(restaurantId));
+        response.put("total", notifications.getTotalElements());
+        response.put("page", boundedPage);
+        response.put("size", boundedSize);
+        response.put("totalPages", notifications.getTotalPages());
+        response.put("hasMore", notifications.hasNext());
+        return response;
+    }
+}
@@ -1,9 +1,10 @@
 package com.foodfast.controller;
 
 import com.foodfast.dto.CreateOrderRequest;
+import com.foodfast.dto.OrderPatch;
 import com.foodfast.entity.Order;
 import com.foodfast.entity.OrderItem;
-import com.foodfast.entity.OrderStatus;
+import com.foodfast.service.EtaService;
 import com.foodfast.service.OrderService;
 import com.foodfast.service.RealtimeService;
 import jakarta.validation.Valid;
@@ -11,6 +12,8 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
@@ -25,8 +28,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -34,12 +37,17 @@ import java.util.Optional;
 @RequestMapping({"/api/orders", "/orders"})
 public class OrderController {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+
     private final OrderService orderService;
+    private final EtaService etaService;
     private final RealtimeService realtimeService;
     private final SimpMessagingTemplate messagingTemplate;
 
-    public OrderController(OrderService orderService, RealtimeService realtimeService, SimpMessagingTemplate messagingTemplate) {
+    public OrderController(OrderService orderService, EtaService etaService, RealtimeService realtimeService,
+                           SimpMessagingTemplate messagingTemplate) {
         this.orderService = orderService;
+        this.etaService = etaService;
         this.realtimeService = realtimeService;
         this.messagingTemplate = messagingTemplate;
     }
@@ -55,9 +63,8 @@ public class OrderController {
                     ? restaurantId
                     : restaurant;
 
-            System.out.println("[OrderController] GET /api/orders - psId=" 
-                    + paymentSessionId + ", phone=" + phone 
-                    + ", restaurantId=" + finalRestaurant);
+            log.debug("GET /api/orders - psId={}, phone={}, restaurantId={}",
+                    paymentSessionId, phone, finalRestaurant);
 
             List<Order> orders = orderService.findOrders(paymentSessionId, phone, finalRestaurant);
 
@@ -75,6 +82,46 @@ public class OrderController {
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
+    /**
+     * GET /api/orders/{id}/route
+     * Flight route waypoints; kept out of the order JSON so lists do not decode them
+     */
+    @GetMapping("/{id}/route")
+    public ResponseEntity<Map<String, Object>> getOrderRoute(@PathVariable String id) {
+        return orderService.findById(id)
+                .map(order -> ResponseEntity.ok(Map.<String, Object>of(
+                        "orderId", order.getId(),
+                        "waypoints", order.getRoute())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * GET /api/orders/{id}/eta
+     * Predicted delivery time with the remaining seconds per stage; eta is null once delivered or cancelled
+     */
+    @GetMapping("/{id}/eta")
+    public ResponseEntity<Map<String, Object>> getOrderEta(@PathVariable String id) {
+        EtaService.Estimate tracked = etaService.getEstimate(id);
+        if (tracked != null) {
+            return ResponseEntity.ok(tracked.describe());
+        }
+        // Not tracked yet (e.g. just after a restart) or already finished
+        Optional<Order> orderOpt = orderService.findById(id);
+        if (orderOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Order order = orderOpt.get();
+        EtaService.Estimate estimate = etaService.estimate(order);
+        if (estimate != null) {
+            return ResponseEntity.ok(estimate.describe());
+        }
+        Map<String, Object> finished = new HashMap<>();
+        finished.put("orderId", order.getId());
+        finished.put("status", order.getStatusString());
+        finished.put("eta", null);
+        return ResponseEntity.ok(finished);
+    }
+
     @PostMapping
     public ResponseEntity<Order> createOrder(@RequestBody @Valid CreateOrderRequest request) {
         Order saved = orderService.createOrderFromRequest(request);
@@ -94,100 +141,30 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
+    /**
+     * PATCH /api/orders/{id}
+     * Fields per OrderPatch; an optional "version" makes the update conditional on the
+     * version the client last saw. 409 when the order changed meanwhile or the status
+     * change is not allowed.
+     */
     @PatchMapping("/{id}")
     public ResponseEntity<?> patchOrder(
             @PathVariable String id,
-            @RequestBody Map<String, Object> body
+            @RequestBody OrderPatch patch
     ) {
-        try {
-            Optional<Order> orderOpt = orderService.findById(id);
-            if (orderOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Order order = orderOpt.get();
-            boolean updated = false;
-
-            // Process status
-            if (body.containsKey("status")) {
-                String rawStatus = String.valueOf(body.get("status"));
-                OrderStatus status = OrderStatus.valueOf(
-                        rawStatus.trim().toUpperCase(Locale.ROOT)
-                );
-                order = orderService.updateStatus(id, status);
-                updated = true;
-            }
-
-            // Process other fields
-            if (body.containsKey("confirmedAt")) {
-                Object confirmedAtObj = body.get("confirmedAt");
-                if (confirmedAtObj instanceof Number) {
-                    order.setConfirmedAt(((Number) confirmedAtObj).longValue());
-                    updated = true;
-                }
-            }
-
-            if (body.containsKey("cancelledAt")) {
-                Object cancelledAtObj = body.get("cancelledAt");
-                if (cancelledAtObj instanceof Number) {
-                    order.setCancelledAt(((Number) cancelledAtObj).longValue());
-                    updated = true;
-                }
-            }
-
-            if (body.containsKey("internalNotes")) {
-                order.setInternalNotes(String.valueOf(body.get("internalNotes")));
-                updated = true;
-            }
-
-            if (body.containsKey("confirmedBy")) {
-                order.setConfirmedBy(String.valueOf(body.get("confirmedBy")));
-                updated = true;
-            }
-
-            if (body.containsKey("dronePath")) {
-                Object dronePathObj = body.get("dronePath");
-                if (dronePathObj instanceof List) {
-                    @SuppressWarnings("unchecked")
-                    List<String> dronePathList = (List<String>) dronePathObj;
-                    order.setDronePath(dronePathList);
-                    updated = true;
-                }
-            }
-
-            if (body.containsKey("vnpayTransactionId")) {
-                order.setVnpayTransactionId(String.valueOf(body.get("vnpayTransactionId")));
-                updated = true;
-            }
-
-            if (updated) {
-                order = orderService.save(order);
-
-                messagingTemplate.convertAndSend("/topic/orders", order);
-
-                if (order.getRestaurantId() != null) {
-                    messagingTemplate.convertAndSend("/topic/orders/" + order.getRestaurantId(), order);
-                }
-
-                realtimeService.sendOrderUpdate(order);
-                return ResponseEntity.ok(order);
-            }
-
+        if (patch.isEmpty()) {
             // No changes applied
             return ResponseEntity.ok(
                 Map.of("message", "No changes applied")
             );
+        }
 
-        } catch (IllegalArgumentException e) {
-            // Invalid status value
-            return ResponseEntity.badRequest().body(
-                    Map.of("error", "Invalid status: " + e.getMessage())
-            );
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", e.getMessage()));
+        // One targeted UPDATE and one broadcast; conflicts become 409 in GlobalExceptionHandler
+        Optional<Order> order = orderService.patch(id, patch);
+        if (order.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(order.get());
     }
 
     public static class OrderItemRequest {
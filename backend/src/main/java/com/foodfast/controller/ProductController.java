@@ -2,13 +2,20 @@ package com.foodfast.controller;
 
 import com.foodfast.entity.Product;
 import com.foodfast.repository.ProductRepository;
-import org.springframework.data.domain.Sort;
+import com.foodfast.service.ProductCatalogCache;
+import com.foodfast.service.ProductSearchIndex;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -23,21 +30,64 @@ import java.util.Optional;
 public class ProductController {
 
     private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductSearchIndex productSearchIndex;
 
-    public ProductController(ProductRepository productRepository) {
+    public ProductController(
+            ProductRepository productRepository,
+            ProductCatalogCache productCatalogCache,
+            ProductSearchIndex productSearchIndex) {
         this.productRepository = productRepository;
+        this.productCatalogCache = productCatalogCache;
+        this.productSearchIndex = productSearchIndex;
     }
 
     /**
      * GET /api/products
      * Get all products, optionally filtered by restaurant
+     * Written straight from the pre-encoded menu snapshot (gzip when the client accepts it);
+     * returns 304 when If-None-Match matches the ETag
      */
     @GetMapping
-    public List<Product> getProducts(@RequestParam(required = false) String restaurant) {
-        if (restaurant == null || restaurant.trim().isEmpty()) {
-            return productRepository.findAll(Sort.by(Sort.Direction.ASC, "name"));
+    public void getProducts(
+            @RequestParam(required = false) String restaurant,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        ProductCatalogCache.MenuSnapshot menu = productCatalogCache.getMenu(restaurant);
+        boolean gzipped = menu.hasGzip() && acceptsGzip(acceptEncoding);
+        String etag = menu.getEtag(gzipped);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (etagMatches(ifNoneMatch, etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzipped) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
-        return productRepository.findByRestaurantIgnoreCase(restaurant);
+        response.setContentLength(menu.getContentLength(gzipped));
+        menu.writeTo(response.getOutputStream(), gzipped);
+    }
+
+    /**
+     * GET /api/products/search?q=banh&restaurant=SweetDreams&limit=20
+     * Ranked search over name, category and description (diacritic-insensitive,
+     * prefix and typo tolerant)
+     */
+    @GetMapping("/search")
+    public List<Product> searchProducts(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(required = false) String restaurant,
+            @RequestParam(defaultValue = "20") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, ProductSearchIndex.MAX_LIMIT));
+        return productSearchIndex.search(query, restaurant, boundedLimit);
     }
 
     /**
@@ -61,6 +111,8 @@ public class ProductController {
             return ResponseEntity.badRequest().build();
         }
         Product saved = productRepository.save(product);
+        productCatalogCache.invalidate(saved.getRestaurant());
+        productSearchIndex.upsert(saved);
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
@@ -78,6 +130,7 @@ public class ProductController {
         }
 
         Product product = productOpt.get();
+        String previousRestaurant = product.getRestaurant();
         
         if (updates.containsKey("name")) {
             product.setName(String.valueOf(updates.get("name")));
@@ -114,6 +167,9 @@ public class ProductController {
         }
 
         Product saved = productRepository.save(product);
+        productCatalogCache.invalidate(previousRestaurant);
+        productCatalogCache.invalidate(saved.getRestaurant());
+        productSearchIndex.upsert(saved);
         return ResponseEntity.ok(saved);
     }
 
@@ -123,11 +179,48 @@ public class ProductController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProduct(@PathVariable String id) {
-        if (!productRepository.existsById(id)) {
+        Optional<Product> productOpt = productRepository.findById(id);
+        if (productOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         productRepository.deleteById(id);
+        productCatalogCache.invalidate(productOpt.get().getRestaurant());
+        productSearchIndex.remove(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equals("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean rejected = tokens.length > 1 && tokens[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            return !rejected;
+        }
+        return false;
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
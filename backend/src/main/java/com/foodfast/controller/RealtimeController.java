@@ -1,5 +1,6 @@
 package com.foodfast.controller;
 
+import com.foodfast.config.SlowConsumerGuard;
 import com.foodfast.entity.Drone;
 import com.foodfast.entity.Order;
 import com.foodfast.repository.DroneRepository;
@@ -35,10 +36,15 @@ public class RealtimeController {
 
     private final OrderRepository orderRepository;
     private final DroneRepository droneRepository;
+    private final SlowConsumerGuard slowConsumerGuard;
 
-    public RealtimeController(OrderRepository orderRepository, DroneRepository droneRepository) {
+    public RealtimeController(
+            OrderRepository orderRepository,
+            DroneRepository droneRepository,
+            SlowConsumerGuard slowConsumerGuard) {
         this.orderRepository = orderRepository;
         this.droneRepository = droneRepository;
+        this.slowConsumerGuard = slowConsumerGuard;
     }
 
     /**
@@ -101,5 +107,15 @@ public class RealtimeController {
 
         return ResponseEntity.ok(stats);
     }
-}
 
+    /**
+     * GET /api/realtime/sessions
+     * Slow-consumer policy counters plus the WebSocket sessions that are currently lagging
+     */
+    @GetMapping("/realtime/sessions")
+    public ResponseEntity<Map<String, Object>> getLaggingSessions() {
+        Map<String, Object> response = new HashMap<>(slowConsumerGuard.getStats());
+        response.put("lagging", slowConsumerGuard.getLaggingSessions());
+        return ResponseEntity.ok(response);
+    }
+}
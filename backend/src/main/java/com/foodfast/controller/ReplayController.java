@@ -0,0 +1,157 @@
+package com.foodfast.controller;
+
+import com.foodfast.entity.Drone;
+import com.foodfast.repository.DroneRepository;
+import com.foodfast.service.ReplayService;
+import com.foodfast.service.ReplayService.ReplayQuery;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replay Controller
+ * Replays recorded drone tracks (e.g. incidents flagged on a drone) as streamed
+ * NDJSON or over a STOMP destination; both count against foodfast.replay.max-sessions
+ */
+@RestController
+@RequestMapping("/api/replay")
+@CrossOrigin(origins = {
+        "http://localhost:5173",
+        "http://192.168.0.100:5173",
+        "http://192.168.0.100:5174",
+        "http://192.168.0.100:5175",
+        "http://localhost:8081",
+        "http://192.168.0.100:8081",
+        "exp://localhost:8081",
+        "exp://192.168.0.100:8081"
+})
+public class ReplayController {
+
+    private static final long FLAGGED_WINDOW_MS = 3_600_000L;
+
+    private final ReplayService replayService;
+    private final DroneRepository droneRepository;
+
+    public ReplayController(ReplayService replayService, DroneRepository droneRepository) {
+        this.replayService = replayService;
+        this.droneRepository = droneRepository;
+    }
+
+    /**
+     * GET /api/replay/drones/{id}?from=...&to=...&speed=10&resolution=1s
+     * One drone's recorded fixes as NDJSON, paced by speed (1 = real time, 0 = no pacing)
+     */
+    @GetMapping("/drones/{id}")
+    public ResponseEntity<?> replayDrone(
+            @PathVariable String id,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Double speed,
+            @RequestParam(required = false) String resolution) {
+        ReplayQuery query = new ReplayQuery();
+        query.droneId = id;
+        return stream(query, from, to, speed, resolution);
+    }
+
+    /**
+     * GET /api/replay/restaurants/{restaurantId}?from=...&to=...&speed=10
+     * Every drone of the restaurant's fleet as NDJSON, fixes sharing a timestamp together
+     */
+    @GetMapping("/restaurants/{restaurantId}")
+    public ResponseEntity<?> replayRestaurant(
+            @PathVariable String restaurantId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Double speed,
+            @RequestParam(required = false) String resolution) {
+        ReplayQuery query = new ReplayQuery();
+        query.restaurantId = restaurantId;
+        return stream(query, from, to, speed, resolution);
+    }
+
+    /**
+     * GET /api/replay/flagged
+     * Drones flagged for an issue, each with the replay URL of the hour before its last update
+     */
+    @GetMapping("/flagged")
+    public List<Map<String, Object>> getFlaggedDrones() {
+        List<Map<String, Object>> flagged = new ArrayList<>();
+        for (Drone drone : droneRepository.findAll()) {
+            if (!Boolean.TRUE.equals(drone.getFlaggedForIssue())) {
+                continue;
+            }
+            long to = drone.getUpdatedAt();
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("droneId", drone.getId());
+            entry.put("restaurantId", drone.getRestaurantId());
+            entry.put("issueDescription", drone.getIssueDescription());
+            entry.put("updatedAt", to);
+            entry.put("replayUrl", "/api/replay/drones/" + drone.getId() + "?from=" + (to - FLAGGED_WINDOW_MS) + "&to=" + to);
+            flagged.add(entry);
+        }
+        return flagged;
+    }
+
+    /**
+     * POST /api/replay/sessions
+     * Body: { "droneId" | "restaurantId", "from", "to", "speed", "resolution" }
+     * Starts the replay on /topic/replay/{replayId}; subscribe before or right after this call
+     */
+    @PostMapping("/sessions")
+    public ResponseEntity<Map<String, Object>> startSession(@RequestBody ReplayQuery query) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(replayService.startSession(replayService.validate(query)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/replay/sessions
+     */
+    @GetMapping("/sessions")
+    public List<Map<String, Object>> getSessions() {
+        return replayService.getSessions();
+    }
+
+    /**
+     * DELETE /api/replay/sessions/{replayId}
+     */
+    @DeleteMapping("/sessions/{replayId}")
+    public ResponseEntity<Void> stopSession(@PathVariable String replayId) {
+        return replayService.stopSession(replayId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<?> stream(ReplayQuery query, Long from, Long to, Double speed, String resolution) {
+        query.from = from;
+        query.to = to;
+        query.speed = speed;
+        query.resolution = resolution;
+        try {
+            return ResponseEntity.ok()
+                    .contentType(ReplayService.NDJSON)
+                    .body(replayService.startStream(replayService.validate(query)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
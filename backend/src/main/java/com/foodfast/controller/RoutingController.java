@@ -0,0 +1,55 @@
+package com.foodfast.controller;
+
+import com.foodfast.service.RoutePlanner;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Routing Controller
+ * Route planner preview and cache statistics (the search benchmark is under /api/admin/routing)
+ */
+@RestController
+@RequestMapping("/api/routing")
+@CrossOrigin(origins = {
+        "http://localhost:5173",
+        "http://192.168.0.100:5173",
+        "http://192.168.0.100:5174",
+        "http://192.168.0.100:5175",
+        "http://localhost:8081",
+        "http://192.168.0.100:8081",
+        "exp://localhost:8081",
+        "exp://192.168.0.100:8081"
+})
+public class RoutingController {
+
+    private final RoutePlanner routePlanner;
+
+    public RoutingController(RoutePlanner routePlanner) {
+        this.routePlanner = routePlanner;
+    }
+
+    /**
+     * GET /api/routing/plan?restaurantId=...&address=...
+     * Route a dispatch to that address would fly
+     */
+    @GetMapping("/plan")
+    public Map<String, Object> plan(@RequestParam String restaurantId, @RequestParam String address) {
+        return Map.of(
+                "restaurantId", restaurantId,
+                "address", address,
+                "waypoints", routePlanner.plan(restaurantId, address));
+    }
+
+    /**
+     * GET /api/routing/stats
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return routePlanner.getStats();
+    }
+}
@@ -0,0 +1,80 @@
+package com.foodfast.controller;
+
+import com.foodfast.service.DroneSimulationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Simulation Controller
+ * Starts and stops simulated drone fleets for demos and load tests
+ */
+@RestController
+@RequestMapping("/api/simulation")
+@CrossOrigin(origins = {
+        "http://localhost:5173",
+        "http://192.168.0.100:5173",
+        "http://192.168.0.100:5174",
+        "http://192.168.0.100:5175",
+        "http://localhost:8081",
+        "http://192.168.0.100:8081",
+        "exp://localhost:8081",
+        "exp://192.168.0.100:8081"
+})
+public class SimulationController {
+
+    private final DroneSimulationService droneSimulationService;
+
+    public SimulationController(DroneSimulationService droneSimulationService) {
+        this.droneSimulationService = droneSimulationService;
+    }
+
+    /**
+     * POST /api/simulation/start
+     * Body: { "count": 1000, "restaurantId": "sweetdreams" (optional), "speedMps": 15 (optional) }
+     */
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> start(@RequestBody Map<String, Object> body) {
+        Object count = body.get("count");
+        if (!(count instanceof Number)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "count field required"));
+        }
+        Object restaurantId = body.get("restaurantId");
+        Object speed = body.get("speedMps");
+        try {
+            return ResponseEntity.ok(droneSimulationService.start(
+                    ((Number) count).intValue(),
+                    restaurantId != null ? restaurantId.toString() : null,
+                    speed instanceof Number ? ((Number) speed).doubleValue() : null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/simulation/stop
+     * Stops the fleet and removes its drones from the live stream
+     */
+    @PostMapping("/stop")
+    public Map<String, Object> stop() {
+        return droneSimulationService.stop();
+    }
+
+    /**
+     * GET /api/simulation/status
+     * Fleet size, phases, deliveries and tick timing
+     */
+    @GetMapping("/status")
+    public Map<String, Object> status() {
+        return droneSimulationService.status();
+    }
+}
@@ -0,0 +1,94 @@
+package com.foodfast.controller;
+
+import com.foodfast.dto.DroneTelemetry;
+import com.foodfast.service.TelemetryHistoryStore;
+import com.foodfast.service.TelemetryHistoryStore.Resolution;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Telemetry History Controller
+ * Range queries over recorded drone telemetry (flight tracks, battery curves)
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = {
+        "http://localhost:5173",
+        "http://192.168.0.100:5173",
+        "http://192.168.0.100:5174",
+        "http://192.168.0.100:5175",
+        "http://localhost:8081",
+        "http://192.168.0.100:8081",
+        "exp://localhost:8081",
+        "exp://192.168.0.100:8081"
+})
+public class TelemetryHistoryController {
+
+    private static final int MAX_POINTS = 10_000;
+
+    private final TelemetryHistoryStore telemetryHistoryStore;
+
+    public TelemetryHistoryController(TelemetryHistoryStore telemetryHistoryStore) {
+        this.telemetryHistoryStore = telemetryHistoryStore;
+    }
+
+    /**
+     * GET /api/drones/{id}/history?from=...&to=...&resolution=1s|10s|1m&limit=...
+     * from/to are epoch millis (default: the last hour); without resolution the finest
+     * one that is retained for the window and fits the limit is used. Only retained days
+     * are read, however wide the window.
+     */
+    @GetMapping("/drones/{id}/history")
+    public ResponseEntity<Map<String, Object>> getDroneHistory(
+            @PathVariable String id,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) String resolution,
+            @RequestParam(defaultValue = "2000") int limit) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 3_600_000L;
+        if (start < 0 || end < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from and to must be epoch milliseconds"));
+        }
+        if (start > end) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must not be after to"));
+        }
+        int maxPoints = Math.max(1, Math.min(limit, MAX_POINTS));
+        Resolution chosen;
+        try {
+            chosen = resolution != null
+                    ? Resolution.fromLabel(resolution)
+                    : telemetryHistoryStore.chooseResolution(start, end, maxPoints);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        List<DroneTelemetry> points = telemetryHistoryStore.query(id, start, end, chosen, maxPoints);
+        Map<String, Object> response = new HashMap<>();
+        response.put("droneId", id);
+        response.put("from", start);
+        response.put("to", end);
+        response.put("resolution", chosen.getLabel());
+        response.put("points", points);
+        response.put("truncated", points.size() >= maxPoints);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /api/telemetry/history/stats
+     * Segment counts, sizes and retention per resolution
+     */
+    @GetMapping("/telemetry/history/stats")
+    public Map<String, Object> getStats() {
+        return telemetryHistoryStore.getStats();
+    }
+}
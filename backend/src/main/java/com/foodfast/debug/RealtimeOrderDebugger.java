@@ -8,6 +8,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Minimal debug logger for realtime order flow.
@@ -19,7 +20,11 @@ public class RealtimeOrderDebugger {
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
 
-    private static synchronized void appendLog(String event, Object data) {
+    // A lock rather than synchronized: file I/O under a monitor would pin a virtual thread's carrier
+    private static final ReentrantLock lock = new ReentrantLock();
+
+    private static void appendLog(String event, Object data) {
+        lock.lock();
         try {
             Path logPath = Paths.get(LOG_FILE);
             
@@ -52,6 +57,8 @@ public class RealtimeOrderDebugger {
         } catch (IOException e) {
             // Silent fail - don't break the application
             System.err.println("[RealtimeOrderDebugger] Failed to write log: " + e.getMessage());
+        } finally {
+            lock.unlock();
         }
     }
 
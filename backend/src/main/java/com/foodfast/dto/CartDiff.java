@@ -0,0 +1,48 @@
+package com.foodfast.dto;
+
+import com.foodfast.entity.CartItem;
+
+/**
+ * Incremental cart change pushed to the cart owner on /user/queue/cart.
+ * version increases by one per change; a client that sees a gap should re-fetch GET /api/cart.
+ */
+public class CartDiff {
+
+    public enum Type {
+        ADDED,
+        REMOVED,
+        CLEARED
+    }
+
+    public Type type;
+    public CartItem item;
+    public Long itemId;
+    public long version;
+
+    public CartDiff() {
+    }
+
+    public static CartDiff added(CartItem item, long version) {
+        CartDiff diff = new CartDiff();
+        diff.type = Type.ADDED;
+        diff.item = item;
+        diff.itemId = item.getId();
+        diff.version = version;
+        return diff;
+    }
+
+    public static CartDiff removed(Long itemId, long version) {
+        CartDiff diff = new CartDiff();
+        diff.type = Type.REMOVED;
+        diff.itemId = itemId;
+        diff.version = version;
+        return diff;
+    }
+
+    public static CartDiff cleared(long version) {
+        CartDiff diff = new CartDiff();
+        diff.type = Type.CLEARED;
+        diff.version = version;
+        return diff;
+    }
+}
@@ -0,0 +1,164 @@
+package com.foodfast.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.foodfast.entity.Drone;
+import com.foodfast.entity.WaypointCodec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Body of PATCH /api/drones/{id}. Only the fields below can be patched; each setter
+ * records the column(s) it touches with the value already in storage form, so the
+ * update can be written without loading the drone first.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DronePatch {
+
+    /**
+     * How far a drone's updatedAt may be from server time before it is clamped
+     */
+    public static final long MAX_CLOCK_SKEW_MILLIS = 5_000;
+
+    private final Map<String, Object> assignments = new LinkedHashMap<>();
+
+    public static class Point {
+        public Double lat;
+        public Double lng;
+
+        boolean isComplete() {
+            return lat != null && lng != null;
+        }
+    }
+
+    public void setStatus(String status) {
+        if (status == null) {
+            return;
+        }
+        // Map frontend status to backend status
+        assignments.put("status", switch (status.toLowerCase(Locale.ROOT)) {
+            case "delivering" -> "Delivering";
+            case "arrived", "returning" -> "Idle";
+            default -> status;
+        });
+    }
+
+    public void setBattery(Integer battery) {
+        if (battery != null && !assignments.containsKey("batteryLevel")) {
+            assignments.put("battery", clampPercent(battery));
+        }
+    }
+
+    public void setBatteryLevel(Integer batteryLevel) {
+        Integer clamped = batteryLevel != null ? clampPercent(batteryLevel) : null;
+        assignments.put("batteryLevel", clamped);
+        if (clamped != null) {
+            assignments.put("battery", clamped);
+        }
+    }
+
+    private static int clampPercent(int value) {
+        return Math.max(0, Math.min(100, value));
+    }
+
+    public void setCurrentOrderId(String currentOrderId) {
+        assignments.put("currentOrderId", currentOrderId);
+    }
+
+    /**
+     * Alias of currentOrderId for frontend compatibility
+     */
+    public void setOrderId(String orderId) {
+        assignments.put("currentOrderId", orderId);
+    }
+
+    public void setDroneCode(String droneCode) {
+        assignments.put("droneCode", droneCode);
+    }
+
+    public void setPosition(Point position) {
+        if (position != null && position.isComplete()) {
+            assignments.put("positionLat", position.lat);
+            assignments.put("positionLng", position.lng);
+        }
+    }
+
+    /**
+     * [{lat, lng}, ...]; null or [] clears the route
+     */
+    public void setWaypoints(List<Point> waypoints) {
+        List<Drone.PositionObject> route = new ArrayList<>();
+        if (waypoints != null) {
+            for (Point point : waypoints) {
+                if (point != null && point.isComplete()) {
+                    route.add(new Drone.PositionObject(point.lat, point.lng));
+                }
+            }
+        }
+        assignments.put("routeWaypoints", WaypointCodec.encode(route));
+    }
+
+    public void setSpeedMps(Double speedMps) {
+        assignments.put("speedMps", speedMps != null ? speedMps : 0.0);
+    }
+
+    /**
+     * Epoch millis as a number or numeric string; anything else stamps the current time.
+     * Drone clocks are not trusted: the value is clamped to [now - MAX_CLOCK_SKEW_MILLIS, now],
+     * so a future or long-stale timestamp cannot reach telemetry history or ETA freshness checks.
+     */
+    public void setUpdatedAt(Object updatedAt) {
+        long now = System.currentTimeMillis();
+        long millis = now;
+        if (updatedAt instanceof Number number) {
+            millis = number.longValue();
+        } else if (updatedAt instanceof String text) {
+            try {
+                millis = Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                // ISO strings from the mobile simulator: use the server time
+            }
+        }
+        assignments.put("updatedAt", Math.max(now - MAX_CLOCK_SKEW_MILLIS, Math.min(now, millis)));
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        if (restaurantId != null) {
+            assignments.put("restaurantId", restaurantId);
+        }
+    }
+
+    public void setRestaurantName(String restaurantName) {
+        assignments.put("restaurantName", restaurantName);
+    }
+
+    public void setLastMaintenance(Long lastMaintenance) {
+        assignments.put("lastMaintenance", lastMaintenance);
+    }
+
+    public void setFlaggedForIssue(Boolean flaggedForIssue) {
+        assignments.put("flaggedForIssue", flaggedForIssue != null ? flaggedForIssue : false);
+    }
+
+    public void setIssueDescription(String issueDescription) {
+        assignments.put("issueDescription", issueDescription);
+    }
+
+    /**
+     * Entity attribute → new value for the fields present in the request
+     */
+    @JsonIgnore
+    public Map<String, Object> getAssignments() {
+        return Collections.unmodifiableMap(assignments);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return assignments.isEmpty();
+    }
+}
@@ -0,0 +1,39 @@
+package com.foodfast.dto;
+
+import com.foodfast.entity.Drone;
+
+/**
+ * One drone position fix as streamed on /topic/drone and /topic/drone/{restaurantId}.
+ * status uses the frontend values ('delivering' | 'returning'); simulated drones also
+ * report 'idle' and 'charging' while parked at their restaurant.
+ */
+public class DroneTelemetry {
+
+    public String id;
+    public String restaurantId;
+    public double lat;
+    public double lng;
+    public double speedMps;
+    public int battery;
+    public String status;
+    public String orderId;
+    public long updatedAt;
+
+    public DroneTelemetry() {
+    }
+
+    public static DroneTelemetry from(Drone drone) {
+        Drone.PositionObject position = drone.getPosition();
+        DroneTelemetry telemetry = new DroneTelemetry();
+        telemetry.id = drone.getId();
+        telemetry.restaurantId = drone.getRestaurantId();
+        telemetry.lat = position.lat;
+        telemetry.lng = position.lng;
+        telemetry.speedMps = drone.getSpeedMps();
+        telemetry.battery = drone.getBattery();
+        telemetry.status = drone.getStatusForFrontend();
+        telemetry.orderId = drone.getCurrentOrderId();
+        telemetry.updatedAt = drone.getUpdatedAt();
+        return telemetry;
+    }
+}
@@ -0,0 +1,24 @@
+package com.foodfast.dto;
+
+/**
+ * Map viewport sent by a client to /app/drone/viewport as it pans or zooms.
+ * Any missing bound clears the viewport (the session stops receiving /user/queue/drone).
+ */
+public class DroneViewport {
+
+    public Double minLat;
+    public Double minLng;
+    public Double maxLat;
+    public Double maxLng;
+
+    public DroneViewport() {
+    }
+
+    public boolean isEmpty() {
+        return minLat == null || minLng == null || maxLat == null || maxLng == null;
+    }
+
+    public boolean contains(double lat, double lng) {
+        return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+    }
+}
@@ -0,0 +1,90 @@
+package com.foodfast.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.foodfast.entity.Order;
+import com.foodfast.entity.OrderStatus;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Body of PATCH /api/orders/{id}. Only the fields below can be patched; each setter
+ * records the column it touches, so a field left out of the JSON is left alone in the
+ * database while an explicit null clears it. Status and route are applied by OrderService
+ * because they depend on the stored state.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderPatch {
+
+    private final Map<String, Object> assignments = new LinkedHashMap<>();
+    private OrderStatus status;
+    private Long version;
+
+    public static OrderPatch ofStatus(OrderStatus status) {
+        OrderPatch patch = new OrderPatch();
+        patch.status = status;
+        return patch;
+    }
+
+    /**
+     * Pending, Confirmed, In Progress, Ready, Delivering, Delivered, Cancelled (or the enum names)
+     */
+    public void setStatus(String status) {
+        this.status = OrderStatus.fromLabel(status);
+    }
+
+    /**
+     * Version the client last saw; the update is rejected with 409 when the order has moved on
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public void setConfirmedAt(Long confirmedAt) {
+        assignments.put("confirmedAt", confirmedAt);
+    }
+
+    public void setCancelledAt(Long cancelledAt) {
+        assignments.put("cancelledAt", cancelledAt);
+    }
+
+    public void setInternalNotes(String internalNotes) {
+        assignments.put("internalNotes", internalNotes);
+    }
+
+    public void setConfirmedBy(String confirmedBy) {
+        assignments.put("confirmedBy", confirmedBy);
+    }
+
+    public void setDronePath(List<String> dronePath) {
+        assignments.put("dronePath", Order.encodeDronePath(dronePath));
+    }
+
+    public void setVnpayTransactionId(String vnpayTransactionId) {
+        assignments.put("vnpayTransactionId", vnpayTransactionId);
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Entity attribute → new value for the plain fields present in the request
+     */
+    @JsonIgnore
+    public Map<String, Object> getAssignments() {
+        return Collections.unmodifiableMap(assignments);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return status == null && assignments.isEmpty();
+    }
+}
@@ -1,8 +1,8 @@
 package com.foodfast.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
@@ -10,8 +10,8 @@ import jakarta.persistence.Table;
 @Table(name = "cart_items")
 public class CartItem {
 
+    // Assigned by CartStore and kept across write-behind flushes, eviction and restarts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private Long productId;
@@ -24,6 +24,11 @@ public class CartItem {
 
     private String restaurantCode;
 
+    // User id or session id owning this cart line (persisted by the cart write-behind)
+    @Column(name = "owner_id", length = 100)
+    @JsonIgnore
+    private String ownerId;
+
     public CartItem() {
     }
 
@@ -74,5 +79,13 @@ public class CartItem {
     public void setRestaurantCode(String restaurantCode) {
         this.restaurantCode = restaurantCode;
     }
-}
 
+    @JsonIgnore
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+}
@@ -6,8 +6,8 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Entity
@@ -81,6 +81,15 @@ public class Drone {
     @JsonProperty("updatedAt")
     private Long updatedAt;
 
+    // Route currently being flown, packed by WaypointCodec
+    @Column(name = "route_waypoints", length = 16384)
+    @JsonIgnore
+    private byte[] routeWaypoints;
+
+    @Transient
+    @JsonIgnore
+    private List<PositionObject> waypoints; // Decoded on first access
+
     public Drone() {
     }
 
@@ -234,10 +243,18 @@ public class Drone {
         this.positionLng = positionLng;
     }
 
-    // JSON getter for waypoints (empty array for now, can be populated later)
+    // JSON getter for waypoints: the route the drone is flying (empty when idle)
     @JsonProperty("waypoints")
     public List<PositionObject> getWaypoints() {
-        return new ArrayList<>();
+        if (waypoints == null) {
+            waypoints = WaypointCodec.decode(routeWaypoints);
+        }
+        return waypoints;
+    }
+
+    public void setWaypoints(List<PositionObject> waypoints) {
+        this.routeWaypoints = WaypointCodec.encode(waypoints);
+        this.waypoints = null;
     }
 
     public Double getSpeedMps() {
@@ -4,13 +4,18 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 /**
  * Notification entity for restaurant notifications
  */
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_restaurant_ts", columnList = "restaurant_id, timestamp"),
+        // Oldest-first scan of the retention job
+        @Index(name = "idx_notifications_ts", columnList = "timestamp")
+})
 public class Notification {
 
     @Id
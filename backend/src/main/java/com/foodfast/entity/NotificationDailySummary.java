@@ -0,0 +1,143 @@
+package com.foodfast.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Daily roll-up of notifications removed by the retention job
+ * One row per restaurant per day (id = restaurantId + ":" + day)
+ */
+@Entity
+@Table(name = "notification_daily_summaries")
+public class NotificationDailySummary {
+
+    @Id
+    @Column(length = 80, nullable = false)
+    private String id;
+
+    @Column(name = "restaurant_id", nullable = false, length = 50)
+    @JsonProperty("restaurantId")
+    private String restaurantId;
+
+    @Column(nullable = false, length = 10)
+    @JsonProperty("day")
+    private String day; // yyyy-MM-dd
+
+    @Column(name = "notification_count", nullable = false)
+    @JsonProperty("notificationCount")
+    private long notificationCount;
+
+    @Column(name = "unread_count", nullable = false)
+    @JsonProperty("unreadCount")
+    private long unreadCount;
+
+    @Column(name = "total_amount", nullable = false)
+    @JsonProperty("totalAmount")
+    private long totalAmount;
+
+    @Column(name = "first_timestamp")
+    @JsonProperty("firstTimestamp")
+    private Long firstTimestamp;
+
+    @Column(name = "last_timestamp")
+    @JsonProperty("lastTimestamp")
+    private Long lastTimestamp;
+
+    public NotificationDailySummary() {
+    }
+
+    public NotificationDailySummary(String restaurantId, String day) {
+        this.id = restaurantId + ":" + day;
+        this.restaurantId = restaurantId;
+        this.day = day;
+    }
+
+    /**
+     * Fold one notification into this day's totals
+     */
+    public void add(Notification notification) {
+        notificationCount++;
+        if (!notification.getIsRead()) {
+            unreadCount++;
+        }
+        if (notification.getTotal() != null) {
+            totalAmount += notification.getTotal();
+        }
+        Long timestamp = notification.getTimestamp();
+        if (timestamp != null) {
+            if (firstTimestamp == null || timestamp < firstTimestamp) {
+                firstTimestamp = timestamp;
+            }
+            if (lastTimestamp == null || timestamp > lastTimestamp) {
+                lastTimestamp = timestamp;
+            }
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getDay() {
+        return day;
+    }
+
+    public void setDay(String day) {
+        this.day = day;
+    }
+
+    public long getNotificationCount() {
+        return notificationCount;
+    }
+
+    public void setNotificationCount(long notificationCount) {
+        this.notificationCount = notificationCount;
+    }
+
+    public long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public long getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public void setFirstTimestamp(Long firstTimestamp) {
+        this.firstTimestamp = firstTimestamp;
+    }
+
+    public Long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(Long lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+}
@@ -3,6 +3,9 @@ package com.foodfast.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,10 +16,13 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -24,6 +30,10 @@ import java.util.Objects;
 @Table(name = "orders")
 public class Order {
 
+    private static final ObjectMapper LABEL_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> LABEL_LIST = new TypeReference<>() {
+    };
+
     @Id
     @Column(length = 60, nullable = false)
     private String id;
@@ -65,7 +75,20 @@ public class Order {
 
     @Column(name = "drone_path", length = 2000)
     @JsonProperty("dronePath")
-    private String dronePath; // JSON array as string, will be parsed to List<String>
+    private String dronePath; // Stage labels as a JSON array string
+
+    @Transient
+    @JsonIgnore
+    private List<String> dronePathLabels; // Parsed once per loaded entity
+
+    // Flight route, packed by WaypointCodec; decoded only when getRoute() is called
+    @Column(name = "route_waypoints", length = 16384)
+    @JsonIgnore
+    private byte[] routeWaypoints;
+
+    @Transient
+    @JsonIgnore
+    private List<Drone.PositionObject> route;
 
     @Column(name = "vnpay_transaction_id", length = 100)
     @JsonProperty("vnpayTransactionId")
@@ -90,24 +113,20 @@ public class Order {
     // Getter that returns status as string matching frontend expectations
     @JsonProperty("status")
     public String getStatusString() {
-        if (status == null) {
-            return "Pending";
-        }
-        // Map enum to frontend string values
-        return switch (status) {
-            case PENDING -> "Pending";
-            case CONFIRMED -> "Confirmed";
-            case PREPARING -> "In Progress";
-            case READY -> "Ready";
-            case DELIVERING -> "Delivering";
-            case DELIVERED -> "Delivered";
-            case CANCELLED -> "Cancelled";
-        };
+        return status != null ? status.getLabel() : OrderStatus.PENDING.getLabel();
     }
 
+    @Transient
+    private Long eta; // Predicted delivery time (epoch millis), filled in when the order is broadcast
+
     @Column(nullable = false)
     private int total = 0;
 
+    // Optimistic lock: every write is conditional on the version that was read
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Database columns (stored as Instant in DB)
     @Column(nullable = false, name = "created_at")
     @JsonIgnore
@@ -286,42 +305,33 @@ public class Order {
     // JSON getter for dronePath as List<String>
     @JsonProperty("dronePath")
     public List<String> getDronePath() {
-        if (dronePath == null || dronePath.trim().isEmpty()) {
-            return new ArrayList<>();
+        if (dronePathLabels == null) {
+            dronePathLabels = parseLabels(dronePath);
         }
-        try {
-            // Parse JSON array string to List
-            // Simple parsing - assumes format: ["path1", "path2"]
-            String cleaned = dronePath.trim();
-            if (cleaned.startsWith("[") && cleaned.endsWith("]")) {
-                cleaned = cleaned.substring(1, cleaned.length() - 1);
-                if (cleaned.trim().isEmpty()) {
-                    return new ArrayList<>();
-                }
-                String[] parts = cleaned.split(",");
-                List<String> result = new ArrayList<>();
-                for (String part : parts) {
-                    String trimmed = part.trim().replace("\"", "").replace("'", "");
-                    if (!trimmed.isEmpty()) {
-                        result.add(trimmed);
-                    }
-                }
-                return result;
-            }
-        } catch (Exception e) {
-            // If parsing fails, return empty list
-        }
-        return new ArrayList<>();
+        return dronePathLabels;
     }
 
     public void setDronePath(List<String> dronePathList) {
         if (dronePathList == null || dronePathList.isEmpty()) {
             this.dronePath = null;
-        } else {
-            // Convert List to JSON array string
-            this.dronePath = "[" + String.join(",", dronePathList.stream()
-                    .map(path -> "\"" + path + "\"")
-                    .toList()) + "]";
+            this.dronePathLabels = null;
+            return;
+        }
+        this.dronePath = encodeDronePath(dronePathList);
+        this.dronePathLabels = dronePathList.stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Stage labels as stored in the drone_path column (null for an empty path)
+     */
+    public static String encodeDronePath(List<String> dronePathList) {
+        if (dronePathList == null || dronePathList.isEmpty()) {
+            return null;
+        }
+        try {
+            return LABEL_MAPPER.writeValueAsString(dronePathList.stream().filter(Objects::nonNull).toList());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid drone path", e);
         }
     }
 
@@ -332,6 +342,28 @@ public class Order {
 
     public void setDronePathString(String dronePath) {
         this.dronePath = dronePath;
+        this.dronePathLabels = null;
+    }
+
+    /**
+     * Planned flight route (empty when none); decoded on first access
+     */
+    @JsonIgnore
+    public List<Drone.PositionObject> getRoute() {
+        if (route == null) {
+            route = WaypointCodec.decode(routeWaypoints);
+        }
+        return route;
+    }
+
+    public void setRoute(List<Drone.PositionObject> waypoints) {
+        this.routeWaypoints = WaypointCodec.encode(waypoints);
+        this.route = null;
+    }
+
+    @JsonProperty("routePoints")
+    public int getRoutePointCount() {
+        return WaypointCodec.count(routeWaypoints);
     }
 
     public String getVnpayTransactionId() {
@@ -400,6 +432,23 @@ public class Order {
         };
     }
 
+    @JsonProperty("eta")
+    public Long getEta() {
+        return eta;
+    }
+
+    public void setEta(Long eta) {
+        this.eta = eta;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public int getTotal() {
         return total;
     }
@@ -477,5 +526,27 @@ public class Order {
             this.restaurantId = this.restaurantId.trim();
         }
     }
-}
 
+    private static List<String> parseLabels(String json) {
+        if (json == null || json.trim().isEmpty()) {
+            return List.of();
+        }
+        try {
+            return Collections.unmodifiableList(LABEL_MAPPER.readValue(json, LABEL_LIST));
+        } catch (JsonProcessingException e) {
+            // Rows written before labels were escaped: fall back to the old lenient split
+            String cleaned = json.trim();
+            if (!cleaned.startsWith("[") || !cleaned.endsWith("]")) {
+                return List.of();
+            }
+            List<String> result = new ArrayList<>();
+            for (String part : cleaned.substring(1, cleaned.length() - 1).split(",")) {
+                String trimmed = part.trim().replace("\"", "").replace("'", "");
+                if (!trimmed.isEmpty()) {
+                    result.add(trimmed);
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+}
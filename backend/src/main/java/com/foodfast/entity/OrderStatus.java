@@ -2,26 +2,81 @@ package com.foodfast.entity;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Locale;
+
+/**
+ * Order lifecycle: PENDING → CONFIRMED → PREPARING → READY → DELIVERING → DELIVERED.
+ * An order can be cancelled until it leaves the restaurant; DELIVERED and CANCELLED are final.
+ */
 public enum OrderStatus {
     @JsonProperty("pending")
-    PENDING,
+    PENDING("Pending"),
 
     @JsonProperty("confirmed")
-    CONFIRMED,
+    CONFIRMED("Confirmed"),
 
     @JsonProperty("preparing")
-    PREPARING,
+    PREPARING("In Progress"),
 
     @JsonProperty("ready")
-    READY,
+    READY("Ready"),
 
     @JsonProperty("delivering")
-    DELIVERING,
+    DELIVERING("Delivering"),
 
     @JsonProperty("delivered")
-    DELIVERED,
+    DELIVERED("Delivered"),
 
     @JsonProperty("cancelled")
-    CANCELLED
-}
+    CANCELLED("Cancelled");
+
+    private final String label;
+
+    OrderStatus(String label) {
+        this.label = label;
+    }
 
+    /**
+     * Status string the frontends display and send back
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Whether an order in this status may move to next (moving to the same status is not a transition)
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        if (next == null || next == this) {
+            return false;
+        }
+        return switch (this) {
+            case PENDING -> next == CONFIRMED || next == CANCELLED;
+            case CONFIRMED -> next == PREPARING || next == CANCELLED;
+            case PREPARING -> next == READY || next == CANCELLED;
+            case READY -> next == DELIVERING || next == CANCELLED;
+            case DELIVERING -> next == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
+
+    public boolean isFinal() {
+        return this == DELIVERED || this == CANCELLED;
+    }
+
+    /**
+     * Parse an enum name or a frontend label ("In Progress", "canceled");
+     * throws IllegalArgumentException for anything else
+     */
+    public static OrderStatus fromLabel(String label) {
+        if (label == null || label.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing status");
+        }
+        String normalized = label.trim().toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "in progress", "in_progress" -> PREPARING;
+            case "canceled" -> CANCELLED;
+            default -> OrderStatus.valueOf(normalized.toUpperCase(Locale.ROOT));
+        };
+    }
+}
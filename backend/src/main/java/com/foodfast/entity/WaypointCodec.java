@@ -0,0 +1,109 @@
+package com.foodfast.entity;
+
+import com.foodfast.entity.Drone.PositionObject;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Waypoint Codec
+ * Packs a path into the binary route columns of Order and Drone: a format byte, the
+ * point count, then each point as the difference to the previous one in fixed-point
+ * micro-degrees (1e-6, about 11 cm), zigzag-encoded as a varint. Neighbouring waypoints
+ * are close together, so most points take 2-4 bytes instead of ~40 characters of JSON.
+ */
+public final class WaypointCodec {
+
+    private static final byte FORMAT_DELTA_E6 = 1;
+    private static final double SCALE = 1_000_000.0;
+
+    private WaypointCodec() {
+    }
+
+    public static byte[] encode(List<PositionObject> points) {
+        if (points == null || points.isEmpty()) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + points.size() * 4);
+        out.write(FORMAT_DELTA_E6);
+        writeVarint(out, points.size());
+        int lastLat = 0;
+        int lastLng = 0;
+        for (PositionObject point : points) {
+            int lat = (int) Math.round(point.lat * SCALE);
+            int lng = (int) Math.round(point.lng * SCALE);
+            writeVarint(out, zigzag(lat - lastLat));
+            writeVarint(out, zigzag(lng - lastLng));
+            lastLat = lat;
+            lastLng = lng;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a packed path; null or empty input gives an empty list
+     */
+    public static List<PositionObject> decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return Collections.emptyList();
+        }
+        if (data[0] != FORMAT_DELTA_E6) {
+            throw new IllegalArgumentException("Unknown waypoint format " + data[0]);
+        }
+        int[] cursor = {1};
+        int count = readVarint(data, cursor);
+        List<PositionObject> points = new ArrayList<>(count);
+        int lat = 0;
+        int lng = 0;
+        for (int i = 0; i < count; i++) {
+            lat += unzigzag(readVarint(data, cursor));
+            lng += unzigzag(readVarint(data, cursor));
+            points.add(new PositionObject(lat / SCALE, lng / SCALE));
+        }
+        return Collections.unmodifiableList(points);
+    }
+
+    /**
+     * Number of points in a packed path, read from the header without decoding it
+     */
+    public static int count(byte[] data) {
+        if (data == null || data.length == 0) {
+            return 0;
+        }
+        return readVarint(data, new int[]{1});
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] cursor) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            if (cursor[0] >= data.length || shift > 28) {
+                throw new IllegalArgumentException("Truncated waypoint data");
+            }
+            byte b = data[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.foodfast.event;
+
+import com.foodfast.entity.Order;
+import com.foodfast.entity.OrderItem;
+import com.foodfast.entity.OrderStatus;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of an order write, published inside the order transaction and
+ * consumed by listeners after commit (so they never see rolled-back orders and never
+ * add work to the order transaction itself).
+ */
+public class OrderChangedEvent {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED
+    }
+
+    private final Type type;
+    private final String orderId;
+    private final String restaurantId;
+    private final String customerName;
+    private final String customerPhone;
+    private final long total;
+    private final OrderStatus status;
+    private final String statusLabel;
+    private final int itemCount;
+    private final List<String> itemNames;
+    private final String address;
+    private final long createdAt;
+    private final long occurredAt;
+
+    private OrderChangedEvent(Type type, Order order) {
+        this.type = type;
+        this.orderId = order.getId();
+        this.restaurantId = order.getRestaurantId() != null ? order.getRestaurantId() : order.getRestaurant();
+        this.customerName = order.getCustomerName();
+        this.customerPhone = order.getCustomerPhone();
+        this.total = order.getTotal();
+        this.status = order.getStatusEnum();
+        this.statusLabel = order.getStatusString();
+        this.itemCount = order.getItems().stream().mapToInt(item -> Math.max(item.getQty(), 0)).sum();
+        this.itemNames = order.getItems().stream().map(OrderItem::getName).filter(Objects::nonNull).distinct().toList();
+        this.address = order.getAddress();
+        this.createdAt = order.getCreatedAt();
+        this.occurredAt = System.currentTimeMillis();
+    }
+
+    public static OrderChangedEvent created(Order order) {
+        return new OrderChangedEvent(Type.CREATED, order);
+    }
+
+    public static OrderChangedEvent statusChanged(Order order) {
+        return new OrderChangedEvent(Type.STATUS_CHANGED, order);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public String getStatusLabel() {
+        return statusLabel;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public List<String> getItemNames() {
+        return itemNames;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+}
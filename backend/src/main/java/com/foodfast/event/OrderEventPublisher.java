@@ -1,27 +1,90 @@
 package com.foodfast.event;
 
 import com.foodfast.entity.Order;
+import com.foodfast.service.EtaService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Broadcasts order updates to /topic/orders and /topic/orders/{restaurantId}. Inside a
+ * transaction the broadcast waits until it has committed, so a saturated broker never
+ * rolls back an order write; sends the broker rejects are counted and logged instead.
+ */
 @Component
 public class OrderEventPublisher {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderEventPublisher.class);
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final EtaService etaService;
+    private final MeterRegistry meterRegistry;
+    private final Timer broadcastTimer;
+    private final DistributionSummary fanOut;
+    private final Counter rejectedCounter;
 
-    public OrderEventPublisher(SimpMessagingTemplate messagingTemplate) {
+    public OrderEventPublisher(SimpMessagingTemplate messagingTemplate, EtaService etaService, MeterRegistry meterRegistry) {
         this.messagingTemplate = messagingTemplate;
+        this.etaService = etaService;
+        this.meterRegistry = meterRegistry;
+        this.broadcastTimer = Timer.builder("foodfast.orders.broadcast")
+                .description("Time to hand an order update to the broker channel")
+                .register(meterRegistry);
+        this.fanOut = DistributionSummary.builder("foodfast.orders.broadcast.fanout")
+                .description("Destinations each order update is sent to")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("foodfast.orders.broadcast.rejected")
+                .description("Order updates the broker channel refused (executor saturated)")
+                .register(meterRegistry);
     }
 
     public void publishOrderUpdate(Order order) {
-        System.out.println("🔥 Broadcasting order update: " + order.getId());
-        
-        // Global realtime
-        messagingTemplate.convertAndSend("/topic/orders", order);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        broadcast(order);
+                    }
+                }
+            });
+            return;
+        }
+        broadcast(order);
+    }
+
+    private void broadcast(Order order) {
+        log.debug("Broadcasting order update: {}", order.getId());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int destinations = 1;
+
+        // Every broadcast carries the current delivery estimate
+        EtaService.Estimate estimate = etaService.estimate(order);
+        order.setEta(estimate != null ? estimate.getEta() : null);
         
-        // Restaurant-specific realtime
-        if (order.getRestaurantId() != null) {
-            messagingTemplate.convertAndSend("/topic/orders/" + order.getRestaurantId(), order);
+        try {
+            // Global realtime
+            messagingTemplate.convertAndSend("/topic/orders", order);
+
+            // Restaurant-specific realtime
+            if (order.getRestaurantId() != null) {
+                messagingTemplate.convertAndSend("/topic/orders/" + order.getRestaurantId(), order);
+                destinations++;
+            }
+        } catch (MessagingException e) {
+            rejectedCounter.increment();
+            log.warn("Order update {} not broadcast: {}", order.getId(), e.getMessage());
         }
+
+        sample.stop(broadcastTimer);
+        fanOut.record(destinations);
     }
 }
@@ -1,7 +1,9 @@
 package com.foodfast.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
@@ -16,13 +18,40 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleUnreadableBody(HttpMessageNotReadableException ex, WebRequest req) {
+        // Body does not fit the endpoint's field schema (wrong type, invalid status, malformed JSON)
+        Map<String, Object> body = errorBody(ex, req);
+        Throwable cause = ex.getMostSpecificCause();
+        body.put("message", cause.getMessage() != null ? cause.getMessage() : "Malformed request body");
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    @ExceptionHandler(OrderConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleOrderConflict(OrderConflictException ex, WebRequest req) {
+        Map<String, Object> body = errorBody(ex, req);
+        body.put("orderId", ex.getOrderId());
+        body.put("currentStatus", ex.getCurrentStatus());
+        body.put("currentVersion", ex.getCurrentVersion());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLock(OptimisticLockingFailureException ex, WebRequest req) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorBody(ex, req));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handle(Exception ex, WebRequest req) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBody(ex, req));
+    }
+
+    private Map<String, Object> errorBody(Exception ex, WebRequest req) {
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("error", ex.getClass().getSimpleName());
         body.put("message", ex.getMessage() != null ? ex.getMessage() : "An error occurred");
         body.put("path", req.getDescription(false).replace("uri=", ""));
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
+        return body;
     }
 }
 
@@ -0,0 +1,34 @@
+package com.foodfast.exception;
+
+import com.foodfast.entity.OrderStatus;
+
+/**
+ * Order Conflict Exception
+ * A write lost to a concurrent update (stale version) or asked for a transition the
+ * order lifecycle does not allow; reported as 409 with the order's current state
+ */
+public class OrderConflictException extends RuntimeException {
+
+    private final String orderId;
+    private final String currentStatus;
+    private final Long currentVersion;
+
+    public OrderConflictException(String message, String orderId, OrderStatus currentStatus, Long currentVersion) {
+        super(message);
+        this.orderId = orderId;
+        this.currentStatus = currentStatus != null ? currentStatus.getLabel() : null;
+        this.currentVersion = currentVersion;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -2,7 +2,35 @@ package com.foodfast.repository;
 
 import com.foodfast.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-}
 
+    List<CartItem> findByOwnerId(String ownerId);
+
+    @Modifying
+    @Query("delete from CartItem c where c.ownerId = :ownerId")
+    int deleteByOwnerId(@Param("ownerId") String ownerId);
+
+    // Lines removed from the cart since the last flush
+    @Modifying
+    @Query("delete from CartItem c where c.ownerId = :ownerId and c.id not in :ids")
+    int deleteByOwnerIdAndIdNotIn(@Param("ownerId") String ownerId, @Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(max(c.id), 0) from CartItem c")
+    long findMaxId();
+
+    // Rows from before carts had owners (one cart shared by everyone)
+    @Modifying
+    @Query("update CartItem c set c.ownerId = :ownerId where c.ownerId is null")
+    int assignOwnerless(@Param("ownerId") String ownerId);
+
+    @Modifying
+    @Query("delete from CartItem c where c.ownerId is null")
+    int deleteOwnerless();
+}
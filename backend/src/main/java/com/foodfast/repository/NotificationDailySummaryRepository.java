@@ -0,0 +1,12 @@
+package com.foodfast.repository;
+
+import com.foodfast.entity.NotificationDailySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationDailySummaryRepository extends JpaRepository<NotificationDailySummary, String> {
+    List<NotificationDailySummary> findByRestaurantIdOrderByDayDesc(String restaurantId);
+}
@@ -1,15 +1,34 @@
 package com.foodfast.repository;
 
 import com.foodfast.entity.Notification;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, String> {
     List<Notification> findByRestaurantIdOrderByTimestampDesc(String restaurantId);
-    List<Notification> findByRestaurantIdAndIsReadFalseOrderByTimestampDesc(String restaurantId);
+    Page<Notification> findByRestaurantIdOrderByTimestampDesc(String restaurantId, Pageable pageable);
+    Page<Notification> findByRestaurantIdAndIsReadFalseOrderByTimestampDesc(String restaurantId, Pageable pageable);
     long countByRestaurantIdAndIsReadFalse(String restaurantId);
-}
 
+    // Oldest-first batch for the retention job
+    List<Notification> findByTimestampLessThanOrderByTimestampAsc(Long cutoff, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Notification n set n.isRead = true "
+            + "where n.restaurantId = :restaurantId and n.id in :ids and n.isRead = false")
+    int markReadByIds(@Param("restaurantId") String restaurantId, @Param("ids") Collection<String> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Notification n set n.isRead = true "
+            + "where n.restaurantId = :restaurantId and n.timestamp <= :upTo and n.isRead = false")
+    int markReadUpTo(@Param("restaurantId") String restaurantId, @Param("upTo") Long upTo);
+}
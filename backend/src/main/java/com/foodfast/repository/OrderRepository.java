@@ -1,10 +1,16 @@
 package com.foodfast.repository;
 
 import com.foodfast.entity.Order;
+import com.foodfast.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, String>, JpaSpecificationExecutor<Order> {
 
@@ -17,5 +23,57 @@ public interface OrderRepository extends JpaRepository<Order, String>, JpaSpecif
 
     // Filter by phone + restaurantId
     List<Order> findByCustomerPhoneContainingIgnoreCaseAndRestaurantId(String phone, String restaurantId);
-}
 
+    List<Order> findByStatusIn(Collection<OrderStatus> statuses);
+
+    /**
+     * The columns a PATCH needs to decide on a status change, without loading items
+     */
+    interface OrderState {
+        OrderStatus getStatus();
+
+        Long getVersion();
+
+        String getRestaurantId();
+
+        String getAddress();
+
+        Boolean getRouted();
+    }
+
+    @Query("select o.status as status, o.version as version, o.restaurantId as restaurantId, o.address as address, "
+            + "case when o.routeWaypoints is null then false else true end as routed "
+            + "from Order o where o.id = :id")
+    Optional<OrderState> findStateById(@Param("id") String id);
+
+    /**
+     * When and where orders came in, oldest first; what the demand forecaster trains on
+     */
+    interface OrderArrival {
+        String getRestaurantId();
+
+        Instant getCreatedAt();
+    }
+
+    @Query("select o.restaurantId as restaurantId, o.createdAt as createdAt from Order o "
+            + "where o.createdAt >= :since order by o.createdAt")
+    List<OrderArrival> findArrivalsSince(@Param("since") Instant since);
+
+    /**
+     * Stage timestamps of a finished order; what the ETA service is seeded from
+     */
+    interface OrderCompletion {
+        String getRestaurantId();
+
+        Instant getCreatedAt();
+
+        Long getConfirmedAt();
+
+        Instant getUpdatedAt();
+    }
+
+    @Query("select o.restaurantId as restaurantId, o.createdAt as createdAt, o.confirmedAt as confirmedAt, "
+            + "o.updatedAt as updatedAt from Order o "
+            + "where o.status = :status and o.createdAt >= :since order by o.updatedAt")
+    List<OrderCompletion> findCompletionsSince(@Param("status") OrderStatus status, @Param("since") Instant since);
+}
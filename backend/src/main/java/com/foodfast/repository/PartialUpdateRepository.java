@@ -0,0 +1,64 @@
+package com.foodfast.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partial Update Repository
+ * Writes only the given attributes of one row as a single UPDATE ... SET ... WHERE id = ?,
+ * without loading the entity. Bulk updates bypass the persistence context, @PreUpdate and
+ * @Version handling, so callers pass updatedAt themselves and versioned entities get
+ * version = version + 1 (optionally guarded by the version the caller read).
+ */
+@Repository
+public class PartialUpdateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @return rows updated: 0 when the row is gone or the version guard did not match
+     */
+    @Transactional
+    public <T> int update(Class<T> entityType, String id, Map<String, Object> assignments,
+                          boolean versioned, Long expectedVersion) {
+        if (assignments.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityType);
+        Root<T> root = update.from(entityType);
+
+        for (Map.Entry<String, Object> assignment : assignments.entrySet()) {
+            Path<Object> path = root.get(assignment.getKey());
+            if (assignment.getValue() == null) {
+                update.<Object>set(path, cb.nullLiteral(path.getJavaType()));
+            } else {
+                update.set(path, assignment.getValue());
+            }
+        }
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(root.get("id"), id));
+        if (versioned) {
+            Path<Long> version = root.get("version");
+            update.<Long>set(version, cb.sum(version, 1L));
+            if (expectedVersion != null) {
+                where.add(cb.equal(version, expectedVersion));
+            }
+        }
+        update.where(where.toArray(new Predicate[0]));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -29,16 +29,19 @@ public class AnalyticsService {
     private final OrderRepository orderRepository;
     private final RestaurantRepository restaurantRepository;
     private final DroneRepository droneRepository;
+    private final EtaService etaService;
 
     public AnalyticsService(
             AnalyticsRepository analyticsRepository,
             OrderRepository orderRepository,
             RestaurantRepository restaurantRepository,
-            DroneRepository droneRepository) {
+            DroneRepository droneRepository,
+            EtaService etaService) {
         this.analyticsRepository = analyticsRepository;
         this.orderRepository = orderRepository;
         this.restaurantRepository = restaurantRepository;
         this.droneRepository = droneRepository;
+        this.etaService = etaService;
     }
 
     /**
@@ -102,8 +105,8 @@ public class AnalyticsService {
         int ordersCount = filteredOrders.size();
         int avgOrderValue = ordersCount > 0 ? (int) (revenue / ordersCount) : 0;
         
-        // Default delivery time (should be calculated from actual delivery data)
-        int deliveryTime = 18;
+        // Learned from completed deliveries (configured default until the first one)
+        int deliveryTime = etaService.getAverageDeliveryMinutes(restaurantId);
         
         Analytics analytics = new Analytics();
         analytics.setId(UUID.randomUUID().toString());
@@ -196,7 +199,7 @@ public class AnalyticsService {
         overview.put("revenue", todayRevenue);
         overview.put("ordersToday", (int) todayOrders);
         overview.put("activeDrones", (int) activeDrones);
-        overview.put("avgDeliveryTime", 18);
+        overview.put("avgDeliveryTime", etaService.getAverageDeliveryMinutes(restaurantId));
         overview.put("rating", restaurant.getRating() != null ? restaurant.getRating() : 0.0);
         overview.put("topItems", topItems);
         
@@ -0,0 +1,302 @@
+package com.foodfast.service;
+
+import com.foodfast.dto.CartDiff;
+import com.foodfast.entity.CartItem;
+import com.foodfast.repository.CartItemRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cart Store
+ * Concurrent in-memory carts keyed by owner (authenticated user or HTTP session id).
+ * Idle carts are evicted after a TTL; with write-behind enabled, changed carts are
+ * flushed to cart_items in the background and restored from there on the next access.
+ * Line ids are allocated here (continuing after the largest stored id) and stored with
+ * the line, so an id a client holds stays valid across flushes, eviction and restarts.
+ */
+@Service
+public class CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartStore.class);
+
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<String, Cart> carts = new ConcurrentHashMap<>();
+    private final AtomicLong itemIds = new AtomicLong();
+
+    private final long ttlMillis;
+    private final boolean writeBehind;
+    private final String legacyOwner;
+
+    public CartStore(
+            CartItemRepository cartItemRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${foodfast.cart.ttl-minutes:120}") long ttlMinutes,
+            @Value("${foodfast.cart.write-behind.enabled:true}") boolean writeBehind,
+            @Value("${foodfast.cart.legacy-owner:}") String legacyOwner) {
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.writeBehind = writeBehind;
+        this.legacyOwner = legacyOwner;
+    }
+
+    /**
+     * Give rows from the shared pre-owner cart to legacy-owner (or remove them when none is
+     * configured; they cannot be attributed to anyone), then continue ids after the stored ones
+     */
+    @PostConstruct
+    public void init() {
+        Integer migrated = transactionTemplate.execute(status -> StringUtils.hasText(legacyOwner)
+                ? cartItemRepository.assignOwnerless(legacyOwner.trim())
+                : cartItemRepository.deleteOwnerless());
+        if (migrated != null && migrated > 0) {
+            if (StringUtils.hasText(legacyOwner)) {
+                log.info("Assigned {} ownerless cart lines to {}", migrated, legacyOwner.trim());
+            } else {
+                log.info("Removed {} ownerless cart lines", migrated);
+            }
+        }
+        itemIds.set(cartItemRepository.findMaxId());
+    }
+
+    public List<CartItem> getItems(String ownerId) {
+        while (true) {
+            Cart cart = cartFor(ownerId);
+            cart.lock.lock();
+            try {
+                if (cart.evicted) {
+                    continue;
+                }
+                cart.touch();
+                return new ArrayList<>(cart.items.values());
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    public CartDiff add(String ownerId, CartItem item) {
+        while (true) {
+            Cart cart = cartFor(ownerId);
+            cart.lock.lock();
+            try {
+                if (cart.evicted) {
+                    continue;
+                }
+                item.setId(itemIds.incrementAndGet());
+                item.setOwnerId(ownerId);
+                cart.items.put(item.getId(), item);
+                return CartDiff.added(item, cart.changed());
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove one line from the owner's cart; returns null if the owner has no such line
+     */
+    public CartDiff remove(String ownerId, Long itemId) {
+        while (true) {
+            Cart cart = cartFor(ownerId);
+            cart.lock.lock();
+            try {
+                if (cart.evicted) {
+                    continue;
+                }
+                if (cart.items.remove(itemId) == null) {
+                    cart.touch();
+                    return null;
+                }
+                return CartDiff.removed(itemId, cart.changed());
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    public CartDiff clear(String ownerId) {
+        while (true) {
+            Cart cart = cartFor(ownerId);
+            cart.lock.lock();
+            try {
+                if (cart.evicted) {
+                    continue;
+                }
+                cart.items.clear();
+                return CartDiff.cleared(cart.changed());
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    /**
+     * Write-behind: persist carts changed since their last flush
+     */
+    @Scheduled(fixedDelayString = "${foodfast.cart.flush-interval-ms:5000}")
+    public void flushDirtyCarts() {
+        if (!writeBehind) {
+            return;
+        }
+        for (Map.Entry<String, Cart> entry : carts.entrySet()) {
+            Cart cart = entry.getValue();
+            List<CartItem> snapshot;
+            long version;
+            cart.lock.lock();
+            try {
+                if (cart.evicted || cart.version == cart.persistedVersion) {
+                    continue;
+                }
+                snapshot = new ArrayList<>(cart.items.values());
+                version = cart.version;
+            } finally {
+                cart.lock.unlock();
+            }
+            try {
+                persist(entry.getKey(), snapshot);
+                cart.lock.lock();
+                try {
+                    cart.persistedVersion = Math.max(cart.persistedVersion, version);
+                } finally {
+                    cart.lock.unlock();
+                }
+            } catch (Exception e) {
+                // Leave the cart dirty; the next flush retries
+                log.error("Failed to persist cart {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Drop carts idle for longer than the TTL (flushing pending changes first)
+     */
+    @Scheduled(fixedDelayString = "${foodfast.cart.eviction-interval-ms:60000}")
+    public void evictExpiredCarts() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        int evicted = 0;
+        for (Map.Entry<String, Cart> entry : carts.entrySet()) {
+            Cart cart = entry.getValue();
+            cart.lock.lock();
+            try {
+                if (cart.evicted || cart.lastAccess > cutoff) {
+                    continue;
+                }
+                if (writeBehind && cart.version != cart.persistedVersion) {
+                    try {
+                        persist(entry.getKey(), new ArrayList<>(cart.items.values()));
+                    } catch (Exception e) {
+                        log.warn("Failed to persist cart {} before eviction", entry.getKey(), e);
+                        continue;
+                    }
+                }
+                cart.evicted = true;
+                carts.remove(entry.getKey(), cart);
+                evicted++;
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+        if (evicted > 0) {
+            log.info("Evicted {} idle carts", evicted);
+        }
+    }
+
+    private Cart cartFor(String ownerId) {
+        Cart cart = carts.get(ownerId);
+        if (cart != null) {
+            return cart;
+        }
+        return carts.computeIfAbsent(ownerId, this::restore);
+    }
+
+    private Cart restore(String ownerId) {
+        // Versions are not stored with the rows: restart from the clock, which is past any
+        // version the owner saw before eviction (a jump the client answers with a re-fetch)
+        Cart cart = new Cart(System.currentTimeMillis());
+        if (writeBehind) {
+            for (CartItem stored : cartItemRepository.findByOwnerId(ownerId)) {
+                CartItem item = copyOf(stored);
+                cart.items.put(item.getId(), item);
+            }
+        }
+        return cart;
+    }
+
+    private void persist(String ownerId, List<CartItem> items) {
+        List<CartItem> rows = new ArrayList<>(items.size());
+        List<Long> ids = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            CartItem row = copyOf(item);
+            row.setOwnerId(ownerId);
+            rows.add(row);
+            ids.add(row.getId());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (ids.isEmpty()) {
+                cartItemRepository.deleteByOwnerId(ownerId);
+            } else {
+                cartItemRepository.deleteByOwnerIdAndIdNotIn(ownerId, ids);
+            }
+            cartItemRepository.saveAll(rows);
+        });
+    }
+
+    private CartItem copyOf(CartItem source) {
+        CartItem copy = new CartItem();
+        copy.setId(source.getId());
+        copy.setProductId(source.getProductId());
+        copy.setProductName(source.getProductName());
+        copy.setUnitPrice(source.getUnitPrice());
+        copy.setQuantity(source.getQuantity());
+        copy.setRestaurantCode(source.getRestaurantCode());
+        copy.setOwnerId(source.getOwnerId());
+        return copy;
+    }
+
+    // All fields are guarded by the Cart's lock (not a monitor: eviction persists
+    // while holding it, and blocking under a monitor would pin virtual threads)
+    private static class Cart {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Long, CartItem> items = new LinkedHashMap<>();
+        long version;
+        long persistedVersion;
+        long lastAccess = System.currentTimeMillis();
+        boolean evicted;
+
+        Cart(long version) {
+            this.version = version;
+            this.persistedVersion = version;
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        long changed() {
+            touch();
+            return ++version;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.foodfast.service;
+
+import com.foodfast.dto.DroneTelemetry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Charging Scheduler
+ * Battery-aware charging plan for the drone fleet, updated on every telemetry fix of the
+ * reporting drone only (no fleet scans). Learns each drone's drain per kilometre and
+ * cruise speed (EWMA) to predict remaining range, and gives each restaurant a fixed
+ * number of charging slots with a waiting queue. Drones that land below ready-percent
+ * queue for a slot; while the restaurant has fewer ready drones than its forecast
+ * demand requires, the drones closest to ready are charged first so they return to
+ * service soonest. Slot assignments are pushed to /topic/charging/{restaurantId}.
+ */
+@Service
+public class ChargingScheduler implements DroneTelemetryListener {
+
+    public enum ChargeState {
+        FLYING,
+        READY,
+        QUEUED,
+        CHARGING
+    }
+
+    private static final String UNASSIGNED = "unassigned";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final int slotsPerRestaurant;
+    private final int reservePercent;
+    private final int urgentPercent;
+    private final int readyPercent;
+    private final int topUpPercent;
+    private final int fullPercent;
+    private final int minReady;
+    private final double defaultDrainPerKm;
+    private final double alpha;
+
+    private final ConcurrentHashMap<String, DroneState> drones = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Fleet> fleets = new ConcurrentHashMap<>();
+
+    public ChargingScheduler(
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${foodfast.charging.slots-per-restaurant:2}") int slotsPerRestaurant,
+            @Value("${foodfast.charging.reserve-percent:15}") int reservePercent,
+            @Value("${foodfast.charging.urgent-percent:30}") int urgentPercent,
+            @Value("${foodfast.charging.ready-percent:60}") int readyPercent,
+            @Value("${foodfast.charging.top-up-percent:90}") int topUpPercent,
+            @Value("${foodfast.charging.full-percent:95}") int fullPercent,
+            @Value("${foodfast.charging.min-ready:1}") int minReady,
+            @Value("${foodfast.charging.default-drain-per-km:2.0}") double defaultDrainPerKm,
+            @Value("${foodfast.charging.ewma-alpha:0.2}") double alpha) {
+        this.messagingTemplate = messagingTemplate;
+        this.slotsPerRestaurant = Math.max(1, slotsPerRestaurant);
+        this.reservePercent = reservePercent;
+        this.urgentPercent = urgentPercent;
+        this.readyPercent = readyPercent;
+        this.topUpPercent = topUpPercent;
+        this.fullPercent = fullPercent;
+        this.minReady = minReady;
+        this.defaultDrainPerKm = defaultDrainPerKm;
+        this.alpha = alpha;
+    }
+
+    @Override
+    public void onTelemetry(DroneTelemetry telemetry) {
+        DroneState drone = drones.computeIfAbsent(telemetry.id, DroneState::new);
+        String restaurantId = telemetry.restaurantId != null ? telemetry.restaurantId : UNASSIGNED;
+        Fleet fleet = fleets.computeIfAbsent(restaurantId, Fleet::new);
+
+        Fleet previous = drone.fleet;
+        if (previous != null && previous != fleet) {
+            // Moved to another restaurant: free whatever it held there first
+            List<Map<String, Object>> events = new ArrayList<>();
+            previous.lock.lock();
+            try {
+                leave(previous, drone, events);
+                previous.members.remove(drone);
+                fillSlots(previous, events);
+            } finally {
+                previous.lock.unlock();
+            }
+            publish(previous.restaurantId, events);
+        }
+
+        List<Map<String, Object>> events = new ArrayList<>();
+        fleet.lock.lock();
+        try {
+            drone.fleet = fleet;
+            fleet.members.add(drone);
+            learn(drone, telemetry);
+            decide(fleet, drone, events);
+        } finally {
+            fleet.lock.unlock();
+        }
+        publish(fleet.restaurantId, events);
+    }
+
+    @Override
+    public void onDroneRemoved(String droneId) {
+        DroneState drone = drones.remove(droneId);
+        if (drone == null || drone.fleet == null) {
+            return;
+        }
+        Fleet fleet = drone.fleet;
+        List<Map<String, Object>> events = new ArrayList<>();
+        fleet.lock.lock();
+        try {
+            leave(fleet, drone, events);
+            fleet.members.remove(drone);
+            fillSlots(fleet, events);
+        } finally {
+            fleet.lock.unlock();
+        }
+        publish(fleet.restaurantId, events);
+    }
+
+    /**
+     * Number of ready drones the restaurant should keep for its forecast demand
+     */
+    public void setRequiredReady(String restaurantId, int required) {
+        Fleet fleet = fleets.computeIfAbsent(restaurantId, Fleet::new);
+        List<Map<String, Object>> events = new ArrayList<>();
+        fleet.lock.lock();
+        try {
+            fleet.requiredReady = Math.max(minReady, required);
+            fillSlots(fleet, events);
+        } finally {
+            fleet.lock.unlock();
+        }
+        publish(fleet.restaurantId, events);
+    }
+
+    /**
+     * Charging plan per restaurant: slots, queue order, ready drones vs. requirement
+     */
+    public List<Map<String, Object>> getPlan() {
+        List<Map<String, Object>> plan = new ArrayList<>();
+        for (Fleet fleet : fleets.values()) {
+            fleet.lock.lock();
+            try {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("restaurantId", fleet.restaurantId);
+                entry.put("slots", slotsPerRestaurant);
+                entry.put("charging", describeAll(fleet.charging));
+                entry.put("queue", describeAll(sortedQueue(fleet)));
+                entry.put("ready", fleet.ready);
+                entry.put("requiredReady", fleet.requiredReady);
+                entry.put("shortfall", Math.max(0, fleet.requiredReady - fleet.ready));
+                entry.put("drones", fleet.members.size());
+                plan.add(entry);
+            } finally {
+                fleet.lock.unlock();
+            }
+        }
+        plan.sort(Comparator.comparing(entry -> String.valueOf(entry.get("restaurantId"))));
+        return plan;
+    }
+
+    /**
+     * Predicted range and charging state of one drone; null before its first fix
+     */
+    public Map<String, Object> describe(String droneId) {
+        DroneState drone = drones.get(droneId);
+        if (drone == null) {
+            return null;
+        }
+        Fleet fleet = drone.fleet;
+        if (fleet == null) {
+            return drone.describe(-1);
+        }
+        fleet.lock.lock();
+        try {
+            return drone.describe(sortedQueue(fleet).indexOf(drone));
+        } finally {
+            fleet.lock.unlock();
+        }
+    }
+
+    /**
+     * Update the drone's drain and speed estimates from the distance flown since the
+     * battery last dropped (battery is reported in whole percent)
+     */
+    private void learn(DroneState drone, DroneTelemetry telemetry) {
+        // Parked drones report idle or charging; anything else moving is in the air
+        boolean parked = "idle".equals(telemetry.status) || "charging".equals(telemetry.status);
+        boolean flying = !parked && ("delivering".equals(telemetry.status) || telemetry.speedMps > 0.5);
+        if (drone.lastFixAt > 0 && flying && drone.flying) {
+            drone.metersSinceDrop += GeoUtils.distanceMeters(drone.lat, drone.lng, telemetry.lat, telemetry.lng);
+            int drop = drone.batteryAtLastDrop - telemetry.battery;
+            if (drop > 0 && drone.metersSinceDrop > 0) {
+                double sample = drop / (drone.metersSinceDrop / 1000.0);
+                drone.drainPerKm = alpha * sample + (1 - alpha) * drone.drainPerKm;
+                drone.metersSinceDrop = 0;
+                drone.batteryAtLastDrop = telemetry.battery;
+            }
+            if (telemetry.speedMps > 0.5) {
+                drone.speedMps = drone.speedMps > 0
+                        ? alpha * telemetry.speedMps + (1 - alpha) * drone.speedMps
+                        : telemetry.speedMps;
+            }
+        } else {
+            drone.metersSinceDrop = 0;
+            drone.batteryAtLastDrop = telemetry.battery;
+        }
+        drone.flying = flying;
+        drone.battery = telemetry.battery;
+        drone.lat = telemetry.lat;
+        drone.lng = telemetry.lng;
+        drone.lastFixAt = telemetry.updatedAt;
+    }
+
+    private void decide(Fleet fleet, DroneState drone, List<Map<String, Object>> events) {
+        ChargeState next;
+        if (drone.flying) {
+            next = ChargeState.FLYING;
+        } else if (drone.state == ChargeState.CHARGING) {
+            next = drone.battery >= fullPercent ? ChargeState.READY : ChargeState.CHARGING;
+        } else if (drone.state == ChargeState.QUEUED) {
+            next = drone.battery >= readyPercent ? ChargeState.READY : ChargeState.QUEUED;
+        } else if (drone.battery < readyPercent) {
+            next = ChargeState.QUEUED;
+        } else if (drone.battery < topUpPercent && fleet.charging.size() < slotsPerRestaurant && fleet.queue.isEmpty()) {
+            // Opportunistic top-up of a ready drone while a slot would sit idle
+            next = ChargeState.CHARGING;
+        } else {
+            next = ChargeState.READY;
+        }
+        if (next == drone.state) {
+            return;
+        }
+        leave(fleet, drone, events);
+        drone.state = next;
+        switch (next) {
+            case READY -> fleet.ready++;
+            case QUEUED -> fleet.queue.add(drone);
+            case CHARGING -> assign(fleet, drone, events);
+            case FLYING -> {
+            }
+        }
+        fillSlots(fleet, events);
+    }
+
+    /**
+     * Take the drone out of whatever it holds (ready count, queue, slot)
+     */
+    private void leave(Fleet fleet, DroneState drone, List<Map<String, Object>> events) {
+        switch (drone.state) {
+            case READY -> fleet.ready--;
+            case QUEUED -> fleet.queue.remove(drone);
+            case CHARGING -> {
+                fleet.charging.remove(drone);
+                events.add(event("CHARGE_RELEASED", fleet, drone));
+            }
+            case FLYING -> {
+            }
+        }
+        drone.state = ChargeState.FLYING;
+    }
+
+    private void fillSlots(Fleet fleet, List<Map<String, Object>> events) {
+        while (fleet.charging.size() < slotsPerRestaurant && !fleet.queue.isEmpty()) {
+            DroneState next = nextInQueue(fleet);
+            fleet.queue.remove(next);
+            next.state = ChargeState.CHARGING;
+            assign(fleet, next, events);
+        }
+    }
+
+    private DroneState nextInQueue(Fleet fleet) {
+        Comparator<DroneState> order = queueOrder(fleet);
+        DroneState best = null;
+        for (DroneState candidate : fleet.queue) {
+            if (best == null || order.compare(candidate, best) < 0) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Drones below urgent-percent go first (lowest battery first); otherwise, while the
+     * restaurant is short of ready drones, the one closest to ready-percent goes first
+     */
+    private Comparator<DroneState> queueOrder(Fleet fleet) {
+        boolean shortOfReady = fleet.ready < fleet.requiredReady;
+        return (a, b) -> {
+            boolean aUrgent = a.battery < urgentPercent;
+            boolean bUrgent = b.battery < urgentPercent;
+            if (aUrgent != bUrgent) {
+                return aUrgent ? -1 : 1;
+            }
+            if (aUrgent || !shortOfReady) {
+                return Integer.compare(a.battery, b.battery);
+            }
+            return Integer.compare(b.battery, a.battery);
+        };
+    }
+
+    private List<DroneState> sortedQueue(Fleet fleet) {
+        List<DroneState> sorted = new ArrayList<>(fleet.queue);
+        sorted.sort(queueOrder(fleet));
+        return sorted;
+    }
+
+    private void assign(Fleet fleet, DroneState drone, List<Map<String, Object>> events) {
+        fleet.charging.add(drone);
+        events.add(event("CHARGE_ASSIGNED", fleet, drone));
+    }
+
+    private Map<String, Object> event(String type, Fleet fleet, DroneState drone) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", type);
+        event.put("restaurantId", fleet.restaurantId);
+        event.put("droneId", drone.id);
+        event.put("battery", drone.battery);
+        event.put("timestamp", System.currentTimeMillis());
+        return event;
+    }
+
+    private void publish(String restaurantId, List<Map<String, Object>> events) {
+        for (Map<String, Object> event : events) {
+            messagingTemplate.convertAndSend("/topic/charging/" + restaurantId, event);
+        }
+    }
+
+    private List<Map<String, Object>> describeAll(Iterable<DroneState> states) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        int position = 0;
+        for (DroneState state : states) {
+            result.add(state.describe(state.state == ChargeState.QUEUED ? position++ : -1));
+        }
+        return result;
+    }
+
+    private class Fleet {
+        final String restaurantId;
+        final ReentrantLock lock = new ReentrantLock();
+        final Set<DroneState> members = new LinkedHashSet<>();
+        final Set<DroneState> charging = new LinkedHashSet<>();
+        final List<DroneState> queue = new ArrayList<>();
+        int ready;
+        volatile int requiredReady = minReady;
+
+        Fleet(String restaurantId) {
+            this.restaurantId = restaurantId;
+        }
+    }
+
+    // Mutated under its fleet's lock
+    private class DroneState {
+        final String id;
+        volatile Fleet fleet;
+        ChargeState state = ChargeState.FLYING;
+        boolean flying;
+        int battery;
+        double lat;
+        double lng;
+        long lastFixAt;
+        double drainPerKm = defaultDrainPerKm;
+        double speedMps;
+        double metersSinceDrop;
+        int batteryAtLastDrop;
+
+        DroneState(String id) {
+            this.id = id;
+        }
+
+        double rangeKm() {
+            return Math.max(0, battery - reservePercent) / drainPerKm;
+        }
+
+        Map<String, Object> describe(int queuePosition) {
+            double range = rangeKm();
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("droneId", id);
+            info.put("state", state.name());
+            info.put("battery", battery);
+            info.put("rangeKm", Math.round(range * 10) / 10.0);
+            info.put("flightMinutes", speedMps > 0 ? Math.round(range * 1000 / speedMps / 60) : null);
+            info.put("drainPerKm", Math.round(drainPerKm * 100) / 100.0);
+            info.put("speedMps", Math.round(speedMps * 10) / 10.0);
+            info.put("queuePosition", queuePosition >= 0 ? queuePosition : null);
+            info.put("lastFixAt", lastFixAt);
+            return info;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.foodfast.service;
+
+import com.foodfast.event.OrderChangedEvent;
+import com.foodfast.repository.OrderRepository;
+import com.foodfast.repository.OrderRepository.OrderArrival;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Demand Forecaster
+ * Order volume per restaurant per 15-minute slot, forecast with additive Holt-Winters
+ * (level, damped trend and a daily season of 96 slots) trained one slot at a time on the
+ * order stream. Each restaurant keeps only its current slot count and the smoothing state
+ * (about a hundred numbers). Bootstrapped from recent orders at startup; every minute the
+ * finished slots are folded in and the next slot's forecast sets how many ready drones
+ * the charging scheduler keeps per restaurant.
+ */
+@Service
+public class DemandForecaster {
+
+    private static final Logger log = LoggerFactory.getLogger(DemandForecaster.class);
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SEASON_SLOTS = 24 * 60 / SLOT_MINUTES;
+
+    private static final long SLOT_MILLIS = TimeUnit.MINUTES.toMillis(SLOT_MINUTES);
+
+    private final OrderRepository orderRepository;
+    private final ChargingScheduler chargingScheduler;
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double phi;
+    private final ZoneId zone;
+    private final int bootstrapDays;
+    private final double droneTripMinutes;
+
+    private final ConcurrentHashMap<String, Model> models = new ConcurrentHashMap<>();
+
+    public DemandForecaster(
+            OrderRepository orderRepository,
+            ChargingScheduler chargingScheduler,
+            @Value("${foodfast.forecast.alpha:0.2}") double alpha,
+            @Value("${foodfast.forecast.beta:0.01}") double beta,
+            @Value("${foodfast.forecast.gamma:0.15}") double gamma,
+            @Value("${foodfast.forecast.trend-damping:0.98}") double phi,
+            @Value("${foodfast.forecast.zone:Asia/Ho_Chi_Minh}") String zone,
+            @Value("${foodfast.forecast.bootstrap-days:28}") int bootstrapDays,
+            @Value("${foodfast.forecast.drone-trip-minutes:20}") double droneTripMinutes) {
+        this.orderRepository = orderRepository;
+        this.chargingScheduler = chargingScheduler;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.phi = phi;
+        this.zone = ZoneId.of(zone);
+        this.bootstrapDays = bootstrapDays;
+        this.droneTripMinutes = droneTripMinutes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        Instant since = Instant.now().minus(bootstrapDays, ChronoUnit.DAYS);
+        List<OrderArrival> arrivals = orderRepository.findArrivalsSince(since);
+        for (OrderArrival arrival : arrivals) {
+            if (arrival.getRestaurantId() != null && arrival.getCreatedAt() != null) {
+                record(arrival.getRestaurantId(), arrival.getCreatedAt().toEpochMilli());
+            }
+        }
+        log.info("Trained on {} orders from the last {} days ({} restaurants)",
+                arrivals.size(), bootstrapDays, models.size());
+        tick();
+    }
+
+    /**
+     * Runs after the order transaction committed (or directly when there was none)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.getType() == OrderChangedEvent.Type.CREATED && event.getRestaurantId() != null) {
+            record(event.getRestaurantId(), event.getCreatedAt());
+        }
+    }
+
+    /**
+     * Fold finished slots into every model and pass the next slot's demand to the charging scheduler
+     */
+    @Scheduled(fixedDelayString = "${foodfast.forecast.tick-ms:60000}")
+    public void tick() {
+        long slot = slotOf(System.currentTimeMillis());
+        models.forEach((restaurantId, model) -> {
+            double nextSlotOrders;
+            model.lock.lock();
+            try {
+                model.advanceTo(slot);
+                nextSlotOrders = model.forecast(1);
+            } finally {
+                model.lock.unlock();
+            }
+            chargingScheduler.setRequiredReady(restaurantId, requiredDrones(nextSlotOrders));
+        });
+    }
+
+    /**
+     * Forecast for the next slots (the current, still open slot first)
+     */
+    public Map<String, Object> getForecast(String restaurantId, int slots) {
+        long now = System.currentTimeMillis();
+        long slot = slotOf(now);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("restaurantId", restaurantId);
+        result.put("slotMinutes", SLOT_MINUTES);
+
+        List<Map<String, Object>> forecast = new ArrayList<>();
+        Model model = models.get(restaurantId);
+        if (model == null) {
+            result.put("trainedSlots", 0);
+            result.put("forecast", forecast);
+            return result;
+        }
+        model.lock.lock();
+        try {
+            model.advanceTo(slot);
+            for (int h = 1; h <= slots; h++) {
+                long start = slotStartMillis(slot + h - 1);
+                double orders = model.forecast(h);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("start", start);
+                entry.put("end", start + SLOT_MILLIS);
+                entry.put("orders", Math.round(orders * 100) / 100.0);
+                if (h == 1) {
+                    entry.put("ordersSoFar", model.currentCount);
+                }
+                forecast.add(entry);
+            }
+            result.put("trainedSlots", model.trainedSlots);
+            result.put("level", Math.round(model.level * 1000) / 1000.0);
+            result.put("trend", Math.round(model.trend * 10000) / 10000.0);
+            result.put("meanAbsoluteError", Double.isNaN(model.absError) ? null : Math.round(model.absError * 100) / 100.0);
+            result.put("requiredReadyDrones", requiredDrones(model.forecast(1)));
+        } finally {
+            model.lock.unlock();
+        }
+        result.put("forecast", forecast);
+        return result;
+    }
+
+    private void record(String restaurantId, long createdAtMillis) {
+        long slot = slotOf(createdAtMillis);
+        Model model = models.computeIfAbsent(restaurantId, id -> new Model(slot));
+        model.lock.lock();
+        try {
+            model.advanceTo(slot);
+            if (slot == model.currentSlot) {
+                model.currentCount++;
+            }
+            // Arrivals for an already closed slot (late commits) are dropped
+        } finally {
+            model.lock.unlock();
+        }
+    }
+
+    /**
+     * Drones a restaurant needs ready to fly the next slot's orders: order rate × trip time
+     */
+    private int requiredDrones(double nextSlotOrders) {
+        return (int) Math.ceil(nextSlotOrders / SLOT_MINUTES * droneTripMinutes - 1e-9);
+    }
+
+    /**
+     * Slot number counted in local time, so slot % SEASON_SLOTS is the time of day
+     */
+    private long slotOf(long epochMillis) {
+        long offsetMillis = TimeUnit.SECONDS.toMillis(zone.getRules().getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds());
+        return Math.floorDiv(epochMillis + offsetMillis, SLOT_MILLIS);
+    }
+
+    private long slotStartMillis(long slot) {
+        long localMillis = slot * SLOT_MILLIS;
+        long offsetMillis = TimeUnit.SECONDS.toMillis(zone.getRules().getOffset(Instant.ofEpochMilli(localMillis)).getTotalSeconds());
+        return localMillis - offsetMillis;
+    }
+
+    /**
+     * Holt-Winters state of one restaurant; guarded by lock
+     */
+    private final class Model {
+        final ReentrantLock lock = new ReentrantLock();
+        final double[] season = new double[SEASON_SLOTS];
+        double level;
+        double trend;
+        double absError = Double.NaN;
+        long trainedSlots;
+        long currentSlot;
+        int currentCount;
+
+        Model(long slot) {
+            this.currentSlot = slot;
+        }
+
+        /**
+         * Close every slot before the given one (empty slots count as zero orders); a gap
+         * longer than a day only replays the last day of zeros
+         */
+        void advanceTo(long slot) {
+            if (slot <= currentSlot) {
+                return;
+            }
+            train(currentSlot, currentCount);
+            long first = Math.max(currentSlot + 1, slot - SEASON_SLOTS);
+            for (long empty = first; empty < slot; empty++) {
+                train(empty, 0);
+            }
+            currentSlot = slot;
+            currentCount = 0;
+        }
+
+        private void train(long slot, double orders) {
+            int index = (int) Math.floorMod(slot, (long) SEASON_SLOTS);
+            if (trainedSlots < SEASON_SLOTS) {
+                // First day: collect raw counts, then start from the daily mean and its profile
+                season[index] = orders;
+                level += orders / SEASON_SLOTS;
+                trainedSlots++;
+                if (trainedSlots == SEASON_SLOTS) {
+                    for (int i = 0; i < SEASON_SLOTS; i++) {
+                        season[i] -= level;
+                    }
+                }
+                return;
+            }
+            double predicted = Math.max(0, level + phi * trend + season[index]);
+            absError = Double.isNaN(absError) ? Math.abs(orders - predicted)
+                    : absError + alpha * (Math.abs(orders - predicted) - absError);
+
+            double previousLevel = level;
+            level = alpha * (orders - season[index]) + (1 - alpha) * (level + phi * trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * phi * trend;
+            season[index] = gamma * (orders - level) + (1 - gamma) * season[index];
+            trainedSlots++;
+        }
+
+        /**
+         * Expected orders h slots after the last closed one (h = 1 is the open slot)
+         */
+        double forecast(int h) {
+            if (trainedSlots == 0) {
+                return currentCount;
+            }
+            if (trainedSlots < SEASON_SLOTS) {
+                // Not a full day yet: flat average of the slots seen so far
+                return level * SEASON_SLOTS / trainedSlots;
+            }
+            double damped = 0;
+            double factor = 1;
+            for (int i = 1; i <= h; i++) {
+                factor *= phi;
+                damped += factor;
+            }
+            int index = (int) Math.floorMod(currentSlot + h - 1, (long) SEASON_SLOTS);
+            return Math.max(0, level + damped * trend + season[index]);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.foodfast.service;
+
+import com.foodfast.dto.DroneTelemetry;
+import com.foodfast.dto.DroneViewport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drone Position Publisher
+ * Conflates drone position fixes: only the latest fix per drone is kept between frames.
+ * At a fixed frame rate every changed drone goes out in one batch frame on /topic/drone,
+ * each restaurant's share on /topic/drone/{restaurantId}, and each viewport subscriber
+ * the drones inside its map viewport on /user/queue/drone (see DroneViewportIndex).
+ * Frame payload: {"type": "DRONE_BATCH", "timestamp": ..., "drones": [DroneTelemetry...]}
+ */
+@Service
+public class DronePositionPublisher implements DroneTelemetryListener {
+
+    public static final String TOPIC = "/topic/drone";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final DroneViewportIndex droneViewportIndex;
+    private final ConcurrentHashMap<String, DroneTelemetry> pending = new ConcurrentHashMap<>();
+    // Last fix sent per drone, for viewport snapshots
+    private final ConcurrentHashMap<String, DroneTelemetry> lastSent = new ConcurrentHashMap<>();
+
+    private final Counter fixesCounter;
+    private final Counter conflatedCounter;
+    private final Counter framesCounter;
+
+    public DronePositionPublisher(
+            SimpMessagingTemplate messagingTemplate,
+            DroneViewportIndex droneViewportIndex,
+            MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.droneViewportIndex = droneViewportIndex;
+        this.fixesCounter = Counter.builder("foodfast.drone.stream.fixes")
+                .description("Drone position fixes received")
+                .register(meterRegistry);
+        this.conflatedCounter = Counter.builder("foodfast.drone.stream.conflated")
+                .description("Drone position fixes replaced by a newer fix before being sent")
+                .register(meterRegistry);
+        this.framesCounter = Counter.builder("foodfast.drone.stream.frames")
+                .description("Batch frames sent on /topic/drone")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record the latest fix of a drone; it goes out with the next frame
+     */
+    @Override
+    public void onTelemetry(DroneTelemetry telemetry) {
+        fixesCounter.increment();
+        if (pending.put(telemetry.id, telemetry) != null) {
+            conflatedCounter.increment();
+        }
+    }
+
+    @Override
+    public void onDroneRemoved(String droneId) {
+        pending.remove(droneId);
+        lastSent.remove(droneId);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Latest known fix of every drone inside a viewport
+     */
+    public List<DroneTelemetry> getLastKnownWithin(DroneViewport viewport) {
+        List<DroneTelemetry> drones = new ArrayList<>();
+        for (DroneTelemetry telemetry : lastSent.values()) {
+            if (viewport.contains(telemetry.lat, telemetry.lng)) {
+                drones.add(telemetry);
+            }
+        }
+        return drones;
+    }
+
+    @Scheduled(fixedRateString = "${foodfast.drone.stream.frame-interval-ms:200}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove() hands each fix to exactly one frame; a fix arriving meanwhile waits for the next
+        List<DroneTelemetry> frame = new ArrayList<>(pending.size());
+        for (String droneId : pending.keySet()) {
+            DroneTelemetry telemetry = pending.remove(droneId);
+            if (telemetry != null) {
+                frame.add(telemetry);
+                lastSent.put(droneId, telemetry);
+            }
+        }
+        if (frame.isEmpty()) {
+            return;
+        }
+
+        long timestamp = System.currentTimeMillis();
+        messagingTemplate.convertAndSend(TOPIC, batch(frame, timestamp));
+
+        Map<String, List<DroneTelemetry>> byRestaurant = new HashMap<>();
+        for (DroneTelemetry telemetry : frame) {
+            if (telemetry.restaurantId != null) {
+                byRestaurant.computeIfAbsent(telemetry.restaurantId, id -> new ArrayList<>()).add(telemetry);
+            }
+        }
+        byRestaurant.forEach((restaurantId, drones) ->
+                messagingTemplate.convertAndSend(TOPIC + "/" + restaurantId, batch(drones, timestamp)));
+        droneViewportIndex.route(frame, timestamp);
+        framesCounter.increment();
+    }
+
+    private Map<String, Object> batch(List<DroneTelemetry> drones, long timestamp) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "DRONE_BATCH");
+        payload.put("timestamp", timestamp);
+        payload.put("drones", drones);
+        return payload;
+    }
+}
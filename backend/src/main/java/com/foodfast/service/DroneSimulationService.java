@@ -0,0 +1,428 @@
+package com.foodfast.service;
+
+import com.foodfast.dto.DroneTelemetry;
+import com.foodfast.entity.Drone.PositionObject;
+import com.foodfast.entity.Restaurant;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drone Simulation Service
+ * Flies N transient (never persisted) drones on a fixed-rate scheduler for demos and
+ * load tests of the realtime pipeline. Each drone waits at its restaurant, flies the
+ * RoutePlanner route (around no-fly zones, as real dispatches do) to a delivery point at
+ * its speed, flies the same route back, and charges when its battery runs low; battery
+ * drains per kilometre flown, and only routes the battery can fly there and back are taken. A drone that still runs dry lands where it is and is recovered
+ * to its restaurant for charging. Every tick each drone reports a fix through
+ * DroneTelemetryService, the same path real drones use.
+ * Runs are reproducible: the same seed, count and restaurants give the same flights.
+ */
+@Service
+public class DroneSimulationService {
+
+    private static final Logger log = LoggerFactory.getLogger(DroneSimulationService.class);
+
+    public static final String ID_PREFIX = "SIM-";
+
+    private static final long RECOVERY_MILLIS = 60_000;
+    private static final int MAX_ROUTE_ATTEMPTS = 3;
+
+    private final DroneTelemetryService droneTelemetryService;
+    private final RestaurantDirectory restaurantDirectory;
+    private final GeoLocator geoLocator;
+    private final RoutePlanner routePlanner;
+
+    private final long tickMillis;
+    private final int maxDrones;
+    private final double defaultSpeedMps;
+    private final double drainPerKm;
+    private final double chargePerSecond;
+    private final double minDispatchBattery;
+    private final double minDeliveryMeters;
+    private final double maxDeliveryMeters;
+    private final long seed;
+
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
+    private ScheduledExecutorService executor;
+    private volatile List<SimulatedDrone> drones = Collections.emptyList();
+    private volatile long startedAt;
+
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong deliveries = new AtomicLong();
+    private final AtomicLong forcedLandings = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private volatile long lastTickNanos;
+    private volatile long lastTickDurationMicros;
+    private volatile long maxTickDurationMicros;
+
+    public DroneSimulationService(
+            DroneTelemetryService droneTelemetryService,
+            RestaurantDirectory restaurantDirectory,
+            GeoLocator geoLocator,
+            RoutePlanner routePlanner,
+            @Value("${foodfast.simulation.tick-ms:200}") long tickMillis,
+            @Value("${foodfast.simulation.max-drones:20000}") int maxDrones,
+            @Value("${foodfast.simulation.default-speed-mps:12}") double defaultSpeedMps,
+            @Value("${foodfast.simulation.battery-drain-per-km:2.0}") double drainPerKm,
+            @Value("${foodfast.simulation.charge-per-second:1.0}") double chargePerSecond,
+            @Value("${foodfast.simulation.min-dispatch-battery:30}") double minDispatchBattery,
+            @Value("${foodfast.simulation.min-delivery-meters:800}") double minDeliveryMeters,
+            @Value("${foodfast.simulation.max-delivery-meters:5000}") double maxDeliveryMeters,
+            @Value("${foodfast.simulation.seed:42}") long seed) {
+        this.droneTelemetryService = droneTelemetryService;
+        this.restaurantDirectory = restaurantDirectory;
+        this.geoLocator = geoLocator;
+        this.routePlanner = routePlanner;
+        this.tickMillis = tickMillis;
+        this.maxDrones = maxDrones;
+        this.defaultSpeedMps = defaultSpeedMps;
+        this.drainPerKm = drainPerKm;
+        this.chargePerSecond = chargePerSecond;
+        this.minDispatchBattery = minDispatchBattery;
+        this.minDeliveryMeters = minDeliveryMeters;
+        this.maxDeliveryMeters = Math.max(minDeliveryMeters, maxDeliveryMeters);
+        this.seed = seed;
+    }
+
+    /**
+     * Start simulating count drones, spread over the active restaurants
+     * (or all at one restaurant when restaurantId is given)
+     */
+    public Map<String, Object> start(int count, String restaurantId, Double speedMps) {
+        if (count < 1 || count > maxDrones) {
+            throw new IllegalArgumentException("count must be between 1 and " + maxDrones);
+        }
+        double speed = speedMps != null && speedMps > 0 ? speedMps : defaultSpeedMps;
+
+        lifecycleLock.lock();
+        try {
+            if (executor != null) {
+                throw new IllegalStateException("Simulation already running");
+            }
+            List<String> restaurantIds = new ArrayList<>();
+            if (StringUtils.hasText(restaurantId)) {
+                restaurantIds.add(restaurantId.trim());
+            } else {
+                for (Restaurant restaurant : restaurantDirectory.getActive()) {
+                    restaurantIds.add(restaurant.getId());
+                }
+            }
+            if (restaurantIds.isEmpty()) {
+                throw new IllegalArgumentException("No active restaurants to fly from");
+            }
+
+            List<SimulatedDrone> fleet = new ArrayList<>(count);
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < count; i++) {
+                String home = restaurantIds.get(i % restaurantIds.size());
+                fleet.add(new SimulatedDrone(String.format("%s%05d", ID_PREFIX, i + 1), home,
+                        geoLocator.locateRestaurant(home), speed, new Random(seed * 31 + i), now));
+            }
+
+            ticks.set(0);
+            deliveries.set(0);
+            forcedLandings.set(0);
+            overruns.set(0);
+            lastTickNanos = 0;
+            lastTickDurationMicros = 0;
+            maxTickDurationMicros = 0;
+            drones = fleet;
+            startedAt = now;
+
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "drone-simulation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+            log.info("Started {} drones over {} restaurants at {} m/s", count, restaurantIds.size(), speed);
+        } finally {
+            lifecycleLock.unlock();
+        }
+        return status();
+    }
+
+    @PreDestroy
+    public Map<String, Object> stop() {
+        List<SimulatedDrone> stopped;
+        lifecycleLock.lock();
+        try {
+            if (executor == null) {
+                return status();
+            }
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+            stopped = drones;
+            drones = Collections.emptyList();
+        } finally {
+            lifecycleLock.unlock();
+        }
+        for (SimulatedDrone drone : stopped) {
+            droneTelemetryService.removed(drone.id);
+        }
+        log.info("Stopped {} drones after {} deliveries", stopped.size(), deliveries.get());
+        return status();
+    }
+
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    public Map<String, Object> status() {
+        List<SimulatedDrone> fleet = drones;
+        Map<Phase, Integer> phases = new EnumMap<>(Phase.class);
+        double batteryTotal = 0;
+        for (SimulatedDrone drone : fleet) {
+            phases.merge(drone.phase, 1, Integer::sum);
+            batteryTotal += drone.battery;
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        status.put("drones", fleet.size());
+        status.put("startedAt", fleet.isEmpty() ? null : startedAt);
+        status.put("tickIntervalMs", tickMillis);
+        status.put("ticks", ticks.get());
+        status.put("deliveries", deliveries.get());
+        status.put("forcedLandings", forcedLandings.get());
+        status.put("lastTickMs", lastTickDurationMicros / 1000.0);
+        status.put("maxTickMs", maxTickDurationMicros / 1000.0);
+        status.put("overruns", overruns.get());
+        status.put("averageBattery", fleet.isEmpty() ? null : Math.round(batteryTotal / fleet.size()));
+        status.put("phases", phases);
+        return status;
+    }
+
+    private void tick() {
+        try {
+            long start = System.nanoTime();
+            // Advance by the real elapsed time so a late tick does not slow the fleet down
+            double elapsedSeconds = lastTickNanos == 0 ? tickMillis / 1000.0 : (start - lastTickNanos) / 1e9;
+            lastTickNanos = start;
+            long wallClock = System.currentTimeMillis();
+
+            for (SimulatedDrone drone : drones) {
+                drone.advance(elapsedSeconds, wallClock);
+                droneTelemetryService.report(drone.toTelemetry(wallClock));
+            }
+
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            lastTickDurationMicros = micros;
+            maxTickDurationMicros = Math.max(maxTickDurationMicros, micros);
+            if (micros > TimeUnit.MILLISECONDS.toMicros(tickMillis)) {
+                overruns.incrementAndGet();
+            }
+            ticks.incrementAndGet();
+        } catch (Exception e) {
+            // An exception would cancel the fixed-rate task; log and keep flying
+            log.error("Simulation tick failed", e);
+        }
+    }
+
+    private enum Phase {
+        WAITING,
+        OUTBOUND,
+        RETURNING,
+        CHARGING,
+        LANDED
+    }
+
+    // Mutated only by the simulation thread
+    private class SimulatedDrone {
+        final String id;
+        final String restaurantId;
+        final PositionObject home;
+        final double speedMps;
+        final Random random;
+
+        volatile Phase phase = Phase.WAITING;
+        volatile double battery;
+        PositionObject position;
+        List<PositionObject> path = Collections.emptyList();
+        int nextWaypoint;
+        long waitUntil;
+        String orderId;
+        int trips;
+
+        SimulatedDrone(String id, String restaurantId, PositionObject home, double speedMps, Random random, long now) {
+            this.id = id;
+            this.restaurantId = restaurantId;
+            this.home = home;
+            this.speedMps = speedMps;
+            this.random = random;
+            this.position = home;
+            this.battery = 60 + random.nextInt(41);
+            // Stagger departures so the fleet does not move in lockstep
+            this.waitUntil = now + random.nextInt(5000);
+        }
+
+        void advance(double elapsedSeconds, long now) {
+            switch (phase) {
+                case WAITING -> {
+                    if (now < waitUntil) {
+                        return;
+                    }
+                    // Farthest delivery point the battery can reach and return from
+                    double reach = rangeMeters() / 2;
+                    if (battery < minDispatchBattery || reach < minDeliveryMeters) {
+                        phase = Phase.CHARGING;
+                        return;
+                    }
+                    List<PositionObject> route = planDelivery(reach);
+                    if (route.isEmpty()) {
+                        // No reachable delivery point this time (no-fly zone, area edge or too far)
+                        waitUntil = now + 1000 + random.nextInt(4000);
+                        return;
+                    }
+                    fly(route);
+                    orderId = "SIM-ORDER-" + id.substring(ID_PREFIX.length()) + "-" + (++trips);
+                    phase = Phase.OUTBOUND;
+                }
+                case OUTBOUND, RETURNING -> {
+                    double meters = move(Math.min(speedMps * elapsedSeconds, rangeMeters()));
+                    battery = Math.max(0.0, battery - drainPerKm * meters / 1000.0);
+                    if (nextWaypoint < path.size()) {
+                        if (battery <= 0.0) {
+                            // Out of battery short of the waypoint: land here instead of flying on empty
+                            forcedLandings.incrementAndGet();
+                            orderId = null;
+                            path = Collections.emptyList();
+                            waitUntil = now + RECOVERY_MILLIS;
+                            phase = Phase.LANDED;
+                        }
+                        return;
+                    }
+                    if (phase == Phase.OUTBOUND) {
+                        deliveries.incrementAndGet();
+                        orderId = null;
+                        List<PositionObject> back = new ArrayList<>(path);
+                        Collections.reverse(back);
+                        fly(back);
+                        phase = Phase.RETURNING;
+                    } else {
+                        waitUntil = now + 1000 + random.nextInt(9000);
+                        phase = Phase.WAITING;
+                    }
+                }
+                case CHARGING -> {
+                    battery = Math.min(100.0, battery + chargePerSecond * elapsedSeconds);
+                    if (battery >= 100.0) {
+                        phase = Phase.WAITING;
+                    }
+                }
+                case LANDED -> {
+                    if (now >= waitUntil) {
+                        // Recovered and carried back to the restaurant
+                        position = home;
+                        phase = Phase.CHARGING;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Route to a random delivery point between the configured distances whose length
+         * is within reach; empty when none was found in a few attempts
+         */
+        List<PositionObject> planDelivery(double reach) {
+            for (int attempt = 0; attempt < MAX_ROUTE_ATTEMPTS; attempt++) {
+                double bearing = random.nextDouble() * 360.0;
+                double distance = Math.min(reach,
+                        minDeliveryMeters + random.nextDouble() * (maxDeliveryMeters - minDeliveryMeters));
+                PositionObject destination = GeoUtils.offset(home, bearing, distance);
+                if (!geoLocator.contains(destination.lat, destination.lng)) {
+                    continue;
+                }
+                List<PositionObject> route = routePlanner.plan(restaurantId, home, destination);
+                if (!route.isEmpty() && lengthMeters(route) <= reach) {
+                    return route;
+                }
+            }
+            return Collections.emptyList();
+        }
+
+        /**
+         * Distance the remaining battery can fly
+         */
+        double rangeMeters() {
+            return drainPerKm > 0 ? battery / drainPerKm * 1000.0 : Double.MAX_VALUE;
+        }
+
+        void fly(List<PositionObject> waypoints) {
+            path = waypoints;
+            nextWaypoint = 1;
+        }
+
+        /**
+         * Move up to the given distance along the path; returns the distance actually flown
+         */
+        double move(double meters) {
+            double flown = 0;
+            while (meters > 0 && nextWaypoint < path.size()) {
+                PositionObject target = path.get(nextWaypoint);
+                double remaining = GeoUtils.distanceMeters(position, target);
+                if (remaining <= meters) {
+                    position = target;
+                    meters -= remaining;
+                    flown += remaining;
+                    nextWaypoint++;
+                } else {
+                    position = GeoUtils.interpolate(position, target, meters / remaining);
+                    flown += meters;
+                    meters = 0;
+                }
+            }
+            return flown;
+        }
+
+        DroneTelemetry toTelemetry(long now) {
+            boolean flying = phase == Phase.OUTBOUND || phase == Phase.RETURNING;
+            DroneTelemetry telemetry = new DroneTelemetry();
+            telemetry.id = id;
+            telemetry.restaurantId = restaurantId;
+            telemetry.lat = position.lat;
+            telemetry.lng = position.lng;
+            telemetry.speedMps = flying ? speedMps : 0.0;
+            telemetry.battery = (int) Math.round(battery);
+            telemetry.status = switch (phase) {
+                case OUTBOUND -> "delivering";
+                case RETURNING -> "returning";
+                case CHARGING -> "charging";
+                case WAITING, LANDED -> "idle";
+            };
+            telemetry.orderId = orderId;
+            telemetry.updatedAt = now;
+            return telemetry;
+        }
+    }
+
+    private static double lengthMeters(List<PositionObject> path) {
+        double meters = 0;
+        for (int i = 1; i < path.size(); i++) {
+            meters += GeoUtils.distanceMeters(path.get(i - 1), path.get(i));
+        }
+        return meters;
+    }
+}
@@ -0,0 +1,19 @@
+package com.foodfast.service;
+
+import com.foodfast.dto.DroneTelemetry;
+
+/**
+ * Receives every drone position fix reported through DroneTelemetryService,
+ * from real drones (PATCH /api/drones/{id}) and simulated ones alike.
+ * Called on the reporting thread, so implementations must be quick and thread-safe.
+ */
+public interface DroneTelemetryListener {
+
+    void onTelemetry(DroneTelemetry telemetry);
+
+    /**
+     * The drone left the fleet (e.g. a simulated drone was stopped)
+     */
+    default void onDroneRemoved(String droneId) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.foodfast.service;
+
+import com.foodfast.dto.DroneTelemetry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Drone Telemetry Service
+ * Single entry point for drone position fixes; fans each fix out to every
+ * DroneTelemetryListener bean (live stream, ...). A failing listener does not
+ * keep the others from seeing the fix.
+ */
+@Service
+public class DroneTelemetryService {
+
+    private static final Logger log = LoggerFactory.getLogger(DroneTelemetryService.class);
+
+    private final List<DroneTelemetryListener> listeners;
+
+    public DroneTelemetryService(List<DroneTelemetryListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    public void report(DroneTelemetry telemetry) {
+        if (telemetry == null || telemetry.id == null) {
+            return;
+        }
+        for (DroneTelemetryListener listener : listeners) {
+            try {
+                listener.onTelemetry(telemetry);
+            } catch (Exception e) {
+                log.warn("{} failed for drone {}", listener.getClass().getSimpleName(), telemetry.id, e);
+            }
+        }
+    }
+
+    public void removed(String droneId) {
+        for (DroneTelemetryListener listener : listeners) {
+            try {
+                listener.onDroneRemoved(droneId);
+            } catch (Exception e) {
+                log.warn("{} failed to remove drone {}", listener.getClass().getSimpleName(), droneId, e);
+            }
+        }
+    }
+}
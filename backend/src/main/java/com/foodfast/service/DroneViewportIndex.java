@@ -0,0 +1,213 @@
+package com.foodfast.service;
+
+import com.foodfast.dto.DroneTelemetry;
+import com.foodfast.dto.DroneViewport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Drone Viewport Index
+ * Spatial index of the map viewports of connected sessions. The world is cut into a
+ * fixed grid of cells; each session is listed under every cell its viewport touches, so
+ * routing a drone fix means one cell lookup plus an exact box check per listed session.
+ * Viewports spanning more than MAX_CELLS_PER_VIEWPORT cells (zoomed far out) are kept
+ * in a separate list and checked directly.
+ * Each session receives only the drones inside its viewport on /user/queue/drone.
+ */
+@Service
+public class DroneViewportIndex {
+
+    public static final String QUEUE = "/queue/drone";
+
+    private static final int MAX_CELLS_PER_VIEWPORT = 4096;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final double cellDegrees;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Set<String>> cells = new HashMap<>();
+    private final Map<String, Subscription> subscriptions = new HashMap<>();
+    private final Set<String> wideSessions = new HashSet<>();
+
+    public DroneViewportIndex(
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${foodfast.drone.viewport.cell-degrees:0.01}") double cellDegrees) {
+        this.messagingTemplate = messagingTemplate;
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Set (or replace) the viewport of a session; an empty viewport unsubscribes it
+     */
+    public void update(String sessionId, DroneViewport viewport) {
+        if (viewport == null || viewport.isEmpty()) {
+            remove(sessionId);
+            return;
+        }
+        checkBound(viewport.minLat, 90, "minLat");
+        checkBound(viewport.maxLat, 90, "maxLat");
+        checkBound(viewport.minLng, 180, "minLng");
+        checkBound(viewport.maxLng, 180, "maxLng");
+        if (viewport.minLat > viewport.maxLat || viewport.minLng > viewport.maxLng) {
+            throw new IllegalArgumentException("Viewport min bounds must not exceed max bounds");
+        }
+
+        int minRow = row(viewport.minLat);
+        int maxRow = row(viewport.maxLat);
+        int minCol = col(viewport.minLng);
+        int maxCol = col(viewport.maxLng);
+        long cellCount = ((long) maxRow - minRow + 1) * ((long) maxCol - minCol + 1);
+        boolean wide = cellCount > MAX_CELLS_PER_VIEWPORT;
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(sessionId);
+            List<Long> keys = new ArrayList<>();
+            if (wide) {
+                wideSessions.add(sessionId);
+            } else {
+                for (int r = minRow; r <= maxRow; r++) {
+                    for (int c = minCol; c <= maxCol; c++) {
+                        long key = cellKey(r, c);
+                        cells.computeIfAbsent(key, k -> new HashSet<>()).add(sessionId);
+                        keys.add(key);
+                    }
+                }
+            }
+            subscriptions.put(sessionId, new Subscription(viewport, keys));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String sessionId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(sessionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        remove(event.getSessionId());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return subscriptions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Send each subscribed session the part of a frame that falls inside its viewport
+     */
+    public void route(List<DroneTelemetry> frame, long timestamp) {
+        Map<String, List<DroneTelemetry>> bySession = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            if (subscriptions.isEmpty()) {
+                return;
+            }
+            for (DroneTelemetry telemetry : frame) {
+                Set<String> sessions = cells.get(cellKey(row(telemetry.lat), col(telemetry.lng)));
+                if (sessions != null) {
+                    for (String sessionId : sessions) {
+                        collect(bySession, sessionId, telemetry);
+                    }
+                }
+                for (String sessionId : wideSessions) {
+                    collect(bySession, sessionId, telemetry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        bySession.forEach((sessionId, drones) -> sendTo(sessionId, drones, timestamp));
+    }
+
+    /**
+     * Send drones to one session (e.g. everything inside a viewport it just moved to)
+     */
+    public void sendTo(String sessionId, List<DroneTelemetry> drones, long timestamp) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "DRONE_BATCH");
+        payload.put("timestamp", timestamp);
+        payload.put("drones", drones);
+        messagingTemplate.convertAndSendToUser(sessionId, QUEUE, payload, headers.getMessageHeaders());
+    }
+
+    // Caller holds the read lock
+    private void collect(Map<String, List<DroneTelemetry>> bySession, String sessionId, DroneTelemetry telemetry) {
+        Subscription subscription = subscriptions.get(sessionId);
+        if (subscription != null && subscription.viewport.contains(telemetry.lat, telemetry.lng)) {
+            bySession.computeIfAbsent(sessionId, id -> new ArrayList<>()).add(telemetry);
+        }
+    }
+
+    private void removeLocked(String sessionId) {
+        Subscription previous = subscriptions.remove(sessionId);
+        if (previous == null) {
+            return;
+        }
+        wideSessions.remove(sessionId);
+        for (Long key : previous.cellKeys) {
+            Set<String> sessions = cells.get(key);
+            if (sessions != null) {
+                sessions.remove(sessionId);
+                if (sessions.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+    }
+
+    private static void checkBound(double value, double limit, String name) {
+        if (!Double.isFinite(value) || Math.abs(value) > limit) {
+            throw new IllegalArgumentException("Viewport " + name + " must be a number within ±" + (int) limit);
+        }
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellDegrees);
+    }
+
+    private int col(double lng) {
+        return (int) Math.floor(lng / cellDegrees);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static class Subscription {
+        final DroneViewport viewport;
+        final List<Long> cellKeys;
+
+        Subscription(DroneViewport viewport, List<Long> cellKeys) {
+            this.viewport = viewport;
+            this.cellKeys = cellKeys;
+        }
+    }
+}
@@ -0,0 +1,540 @@
+package com.foodfast.service;
+
+import com.foodfast.dto.DroneTelemetry;
+import com.foodfast.entity.Drone.PositionObject;
+import com.foodfast.entity.Order;
+import com.foodfast.entity.OrderItem;
+import com.foodfast.entity.OrderStatus;
+import com.foodfast.event.OrderChangedEvent;
+import com.foodfast.repository.OrderRepository;
+import com.foodfast.repository.OrderRepository.OrderCompletion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ETA Service
+ * Predicts when each active order will be delivered as the sum of its remaining stages:
+ * confirmation, kitchen preparation, waiting for a drone and the flight. Every stage is
+ * learned per restaurant (EWMA) from committed lifecycle events: preparation per unit of
+ * work (for the restaurant and per menu item, so slow dishes raise the pace of orders they
+ * are on), dispatch wait per position in the ready queue, and effective flight speed.
+ * Confirmation and order-to-door times are seeded from recently delivered orders at startup.
+ * While an order is in the air the flight is taken from its drone's latest fix (distance to
+ * the destination over speedMps). State is updated incrementally, so an estimate is a few
+ * arithmetic operations; every tick recomputes all active orders, forgets orders that have
+ * stalled past max-active-minutes and pushes those whose ETA moved to /topic/eta/{restaurantId}.
+ */
+@Service
+public class EtaService implements DroneTelemetryListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EtaService.class);
+
+    private static final long FIX_MAX_AGE_MILLIS = 30_000L;
+    private static final double MIN_SPEED_MPS = 0.5;
+
+    private final GeoLocator geoLocator;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final OrderRepository orderRepository;
+
+    private final double alpha;
+    private final double defaultConfirmSeconds;
+    private final double defaultPrepSecondsPerUnit;
+    private final double defaultDispatchSeconds;
+    private final double defaultCruiseMps;
+    private final int defaultDeliveryMinutes;
+    private final long pushThresholdMillis;
+    private final int bootstrapDays;
+    private final long maxActiveMillis;
+
+    private final ConcurrentHashMap<String, Tracked> active = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public EtaService(
+            GeoLocator geoLocator,
+            SimpMessagingTemplate messagingTemplate,
+            OrderRepository orderRepository,
+            @Value("${foodfast.eta.ewma-alpha:0.2}") double alpha,
+            @Value("${foodfast.eta.default-confirm-seconds:60}") double defaultConfirmSeconds,
+            @Value("${foodfast.eta.default-prep-seconds-per-unit:120}") double defaultPrepSecondsPerUnit,
+            @Value("${foodfast.eta.default-dispatch-seconds:90}") double defaultDispatchSeconds,
+            @Value("${foodfast.eta.default-cruise-mps:10}") double defaultCruiseMps,
+            @Value("${foodfast.eta.default-delivery-minutes:18}") int defaultDeliveryMinutes,
+            @Value("${foodfast.eta.push-threshold-seconds:30}") long pushThresholdSeconds,
+            @Value("${foodfast.eta.bootstrap-days:14}") int bootstrapDays,
+            @Value("${foodfast.eta.max-active-minutes:240}") long maxActiveMinutes) {
+        this.geoLocator = geoLocator;
+        this.messagingTemplate = messagingTemplate;
+        this.orderRepository = orderRepository;
+        this.alpha = alpha;
+        this.defaultConfirmSeconds = defaultConfirmSeconds;
+        this.defaultPrepSecondsPerUnit = defaultPrepSecondsPerUnit;
+        this.defaultDispatchSeconds = defaultDispatchSeconds;
+        this.defaultCruiseMps = defaultCruiseMps;
+        this.defaultDeliveryMinutes = defaultDeliveryMinutes;
+        this.pushThresholdMillis = TimeUnit.SECONDS.toMillis(pushThresholdSeconds);
+        this.bootstrapDays = bootstrapDays;
+        this.maxActiveMillis = TimeUnit.MINUTES.toMillis(maxActiveMinutes);
+    }
+
+    /**
+     * Seed confirmation and order-to-door times from recently delivered orders, oldest
+     * first, so a restart does not fall back to the defaults. Preparation, dispatch and
+     * flight are not stored per stage and are learned from live events only.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        Instant since = Instant.now().minus(bootstrapDays, ChronoUnit.DAYS);
+        List<OrderCompletion> completions = orderRepository.findCompletionsSince(OrderStatus.DELIVERED, since);
+        int used = 0;
+        for (OrderCompletion completion : completions) {
+            if (completion.getRestaurantId() == null || completion.getCreatedAt() == null) {
+                continue;
+            }
+            long createdAt = completion.getCreatedAt().toEpochMilli();
+            Stats restaurant = stats(completion.getRestaurantId());
+            Long confirmedAt = completion.getConfirmedAt();
+            if (confirmedAt != null && confirmedAt >= createdAt) {
+                restaurant.observeConfirm(seconds(confirmedAt - createdAt));
+            }
+            if (completion.getUpdatedAt() != null && completion.getUpdatedAt().toEpochMilli() > createdAt) {
+                restaurant.observeDelivery(seconds(completion.getUpdatedAt().toEpochMilli() - createdAt) / 60.0);
+                used++;
+            }
+        }
+        log.info("Seeded from {} delivered orders of the last {} days ({} restaurants)",
+                used, bootstrapDays, stats.size());
+    }
+
+    /**
+     * Runs after the order transaction committed (or directly when there was none)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.getRestaurantId() == null || event.getStatus() == null) {
+            return;
+        }
+        long now = event.getOccurredAt();
+        OrderStatus status = event.getStatus();
+        if (status == OrderStatus.CANCELLED) {
+            active.remove(event.getOrderId());
+            return;
+        }
+
+        Tracked tracked = active.compute(event.getOrderId(), (id, order) -> {
+            if (order == null) {
+                return new Tracked(event, flightMeters(event.getRestaurantId(), event.getAddress()));
+            }
+            if (status == order.status) {
+                return order;
+            }
+            // A stage that was already running when tracking began has no real start time: nothing is learned from it
+            Stats restaurant = stats(order.restaurantId);
+            switch (status) {
+                case PREPARING -> {
+                    order.prepStartedAt = now;
+                    restaurant.observeConfirm(seconds(now - order.createdAt));
+                }
+                case READY -> {
+                    if (order.resumedIn != OrderStatus.PREPARING) {
+                        restaurant.observePrep(seconds(now - order.prepStartedAt), order);
+                    }
+                    order.readyAt = now;
+                    order.readyAhead = readyCount(order.restaurantId);
+                }
+                case DELIVERING -> {
+                    if (order.resumedIn != OrderStatus.READY) {
+                        restaurant.observeDispatch(seconds(now - order.readyAt) / (1 + order.readyAhead));
+                    }
+                    order.dispatchedAt = now;
+                }
+                case DELIVERED -> {
+                    if (order.resumedIn != OrderStatus.DELIVERING && now > order.dispatchedAt) {
+                        restaurant.observeSpeed(order.flightMeters / seconds(now - order.dispatchedAt));
+                    }
+                    restaurant.observeDelivery(seconds(now - order.createdAt) / 60.0);
+                }
+                default -> {
+                }
+            }
+            order.status = status;
+            return order;
+        });
+        if (tracked.status == OrderStatus.DELIVERED) {
+            active.remove(event.getOrderId());
+        }
+    }
+
+    @Override
+    public void onTelemetry(DroneTelemetry telemetry) {
+        if (telemetry.orderId == null) {
+            return;
+        }
+        Tracked order = active.get(telemetry.orderId);
+        if (order != null) {
+            order.fix = telemetry;
+        }
+    }
+
+    /**
+     * Estimate for an order as it is about to be broadcast (its new status may not be
+     * committed yet, so the order itself is authoritative for status)
+     */
+    public Estimate estimate(Order order) {
+        if (order.getStatusEnum() == null || order.getStatusEnum().isFinal()) {
+            return null;
+        }
+        String restaurantId = order.getRestaurantId() != null ? order.getRestaurantId() : order.getRestaurant();
+        if (restaurantId == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Tracked tracked = active.get(order.getId());
+        if (tracked == null || tracked.status != order.getStatusEnum()) {
+            Tracked snapshot = new Tracked(order, restaurantId,
+                    tracked != null ? tracked.flightMeters : flightMeters(restaurantId, order.getAddress()));
+            if (tracked != null) {
+                snapshot.prepStartedAt = tracked.prepStartedAt;
+                snapshot.readyAt = tracked.readyAt;
+                snapshot.dispatchedAt = tracked.dispatchedAt;
+                snapshot.fix = tracked.fix;
+            }
+            // The status just changed: the new stage starts now
+            switch (snapshot.status) {
+                case PREPARING -> snapshot.prepStartedAt = now;
+                case READY -> snapshot.readyAt = now;
+                case DELIVERING -> snapshot.dispatchedAt = now;
+                default -> {
+                }
+            }
+            tracked = snapshot;
+        }
+        return estimate(tracked, readyCount(tracked.restaurantId), now);
+    }
+
+    public Estimate getEstimate(String orderId) {
+        Tracked tracked = active.get(orderId);
+        return tracked != null ? estimate(tracked, readyCount(tracked.restaurantId), System.currentTimeMillis()) : null;
+    }
+
+    /**
+     * Learned average order-to-door time, or the configured default before the first delivery
+     */
+    public int getAverageDeliveryMinutes(String restaurantId) {
+        Stats restaurant = stats.get(restaurantId);
+        double minutes = restaurant != null ? restaurant.deliveryMinutes : Double.NaN;
+        return Double.isNaN(minutes) ? defaultDeliveryMinutes : (int) Math.round(minutes);
+    }
+
+    /**
+     * Recompute every active order and push the ones that moved by more than the threshold
+     */
+    @Scheduled(fixedDelayString = "${foodfast.eta.tick-ms:5000}")
+    public void tick() {
+        if (active.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Orders that never reach DELIVERED or CANCELLED (abandoned, edited in the database) are dropped
+        active.values().removeIf(order -> now - order.createdAt > maxActiveMillis);
+        Map<String, Integer> readyCounts = new HashMap<>();
+        for (Tracked order : active.values()) {
+            if (order.status == OrderStatus.READY) {
+                readyCounts.merge(order.restaurantId, 1, Integer::sum);
+            }
+        }
+        Map<String, List<Map<String, Object>>> changed = new HashMap<>();
+        for (Tracked order : active.values()) {
+            Estimate estimate = estimate(order, readyCounts.getOrDefault(order.restaurantId, 0), now);
+            if (Math.abs(estimate.eta - order.lastPushedEta) < pushThresholdMillis) {
+                continue;
+            }
+            order.lastPushedEta = estimate.eta;
+            changed.computeIfAbsent(order.restaurantId, id -> new ArrayList<>()).add(estimate.describe());
+        }
+        changed.forEach((restaurantId, etas) -> {
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "ORDER_ETA");
+            message.put("restaurantId", restaurantId);
+            message.put("etas", etas);
+            messagingTemplate.convertAndSend("/topic/eta/" + restaurantId, message);
+        });
+    }
+
+    private Estimate estimate(Tracked order, int readyCount, long now) {
+        Stats restaurant = stats(order.restaurantId);
+        double prep = restaurant.predictPrep(order);
+        double flight = order.flightMeters / restaurant.speed();
+        double confirm = 0;
+        double dispatch = 0;
+
+        switch (order.status) {
+            case PENDING, CONFIRMED -> {
+                confirm = remaining(restaurant.confirm(), now - order.createdAt);
+                dispatch = restaurant.dispatchPerPosition() * (1 + readyCount);
+            }
+            case PREPARING -> {
+                prep = remaining(prep, now - order.prepStartedAt);
+                dispatch = restaurant.dispatchPerPosition() * (1 + readyCount);
+            }
+            case READY -> {
+                prep = 0;
+                dispatch = remaining(restaurant.dispatchPerPosition() * (1 + order.readyAhead), now - order.readyAt);
+            }
+            case DELIVERING -> {
+                prep = 0;
+                DroneTelemetry fix = order.fix;
+                if (fix != null && now - fix.updatedAt <= FIX_MAX_AGE_MILLIS) {
+                    double meters = GeoUtils.distanceMeters(fix.lat, fix.lng, order.destination.lat, order.destination.lng);
+                    flight = meters / (fix.speedMps >= MIN_SPEED_MPS ? fix.speedMps : restaurant.speed());
+                } else {
+                    flight = remaining(flight, now - order.dispatchedAt);
+                }
+            }
+            default -> {
+                prep = 0;
+                flight = 0;
+            }
+        }
+        return new Estimate(order.orderId, order.status, now, confirm, prep, dispatch, flight);
+    }
+
+    private static double remaining(double expectedSeconds, long elapsedMillis) {
+        return Math.max(0, expectedSeconds - seconds(elapsedMillis));
+    }
+
+    private static double seconds(long millis) {
+        return millis / 1000.0;
+    }
+
+    private int readyCount(String restaurantId) {
+        int count = 0;
+        for (Tracked order : active.values()) {
+            if (order.status == OrderStatus.READY && order.restaurantId.equals(restaurantId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private double flightMeters(String restaurantId, String address) {
+        return GeoUtils.distanceMeters(geoLocator.locateRestaurant(restaurantId), geoLocator.locateAddress(address));
+    }
+
+    private Stats stats(String restaurantId) {
+        return stats.computeIfAbsent(restaurantId, id -> new Stats());
+    }
+
+    /**
+     * Predicted remaining time per stage, in seconds, and the resulting delivery time
+     */
+    public static class Estimate {
+        final String orderId;
+        final OrderStatus status;
+        final long eta;
+        final double confirmSeconds;
+        final double prepSeconds;
+        final double dispatchSeconds;
+        final double flightSeconds;
+
+        Estimate(String orderId, OrderStatus status, long now,
+                 double confirmSeconds, double prepSeconds, double dispatchSeconds, double flightSeconds) {
+            this.orderId = orderId;
+            this.status = status;
+            this.confirmSeconds = confirmSeconds;
+            this.prepSeconds = prepSeconds;
+            this.dispatchSeconds = dispatchSeconds;
+            this.flightSeconds = flightSeconds;
+            this.eta = now + Math.round((confirmSeconds + prepSeconds + dispatchSeconds + flightSeconds) * 1000);
+        }
+
+        public long getEta() {
+            return eta;
+        }
+
+        public Map<String, Object> describe() {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("orderId", orderId);
+            info.put("status", status.getLabel());
+            info.put("eta", eta);
+            info.put("remainingSeconds", Math.round(confirmSeconds + prepSeconds + dispatchSeconds + flightSeconds));
+            Map<String, Object> stages = new LinkedHashMap<>();
+            stages.put("confirm", Math.round(confirmSeconds));
+            stages.put("prep", Math.round(prepSeconds));
+            stages.put("dispatch", Math.round(dispatchSeconds));
+            stages.put("flight", Math.round(flightSeconds));
+            info.put("stages", stages);
+            return info;
+        }
+    }
+
+    /**
+     * An order between creation and delivery; fields are written inside active.compute
+     * (one event at a time per order) and read by ticks and broadcasts
+     */
+    private final class Tracked {
+        final String orderId;
+        final String restaurantId;
+        final long createdAt;
+        final int itemCount;
+        final List<String> itemNames;
+        final PositionObject destination;
+        final double flightMeters;
+        volatile OrderStatus status;
+        OrderStatus resumedIn;
+        volatile long prepStartedAt;
+        volatile long readyAt;
+        volatile int readyAhead;
+        volatile long dispatchedAt;
+        volatile DroneTelemetry fix;
+        volatile long lastPushedEta;
+
+        Tracked(OrderChangedEvent event, double flightMeters) {
+            this.orderId = event.getOrderId();
+            this.restaurantId = event.getRestaurantId();
+            this.createdAt = event.getCreatedAt();
+            this.itemCount = event.getItemCount();
+            this.itemNames = event.getItemNames();
+            this.destination = geoLocator.locateAddress(event.getAddress());
+            this.flightMeters = flightMeters;
+            this.status = event.getStatus();
+            if (status != OrderStatus.PENDING) {
+                // Tracked mid-lifecycle (e.g. first event after a restart): the current stage starts now
+                this.resumedIn = status;
+                this.prepStartedAt = event.getOccurredAt();
+                this.readyAt = event.getOccurredAt();
+                this.dispatchedAt = event.getOccurredAt();
+            }
+        }
+
+        Tracked(Order order, String restaurantId, double flightMeters) {
+            this.orderId = order.getId();
+            this.restaurantId = restaurantId;
+            this.createdAt = order.getCreatedAt();
+            this.itemCount = order.getItems().stream().mapToInt(item -> Math.max(item.getQty(), 0)).sum();
+            this.itemNames = order.getItems().stream().map(OrderItem::getName).filter(Objects::nonNull).distinct().toList();
+            this.destination = geoLocator.locateAddress(order.getAddress());
+            this.flightMeters = flightMeters;
+            this.status = order.getStatusEnum();
+        }
+    }
+
+    /**
+     * Per-restaurant stage statistics (EWMA; NaN until the first observation)
+     */
+    private final class Stats {
+        final ReentrantLock lock = new ReentrantLock();
+        // Menu item -> EWMA pace (seconds per unit of work) of the orders it was on
+        final ConcurrentHashMap<String, Double> itemPrepSecondsPerUnit = new ConcurrentHashMap<>();
+        volatile double confirmSeconds = Double.NaN;
+        volatile double prepSecondsPerUnit = Double.NaN;
+        volatile double dispatchSecondsPerPosition = Double.NaN;
+        volatile double speedMps = Double.NaN;
+        volatile double deliveryMinutes = Double.NaN;
+
+        /**
+         * Work on the order (a unit per item plus one for the order itself) at the mean pace
+         * of its menu items; items not seen yet count at the restaurant's pace. Paces are per
+         * unit, so a large order does not make its items look slow on small ones.
+         */
+        double predictPrep(Tracked order) {
+            double perUnit = Double.isNaN(prepSecondsPerUnit) ? defaultPrepSecondsPerUnit : prepSecondsPerUnit;
+            if (!order.itemNames.isEmpty()) {
+                double total = 0;
+                for (String item : order.itemNames) {
+                    total += itemPrepSecondsPerUnit.getOrDefault(item, perUnit);
+                }
+                perUnit = total / order.itemNames.size();
+            }
+            return perUnit * (1 + order.itemCount);
+        }
+
+        double confirm() {
+            return Double.isNaN(confirmSeconds) ? defaultConfirmSeconds : confirmSeconds;
+        }
+
+        double dispatchPerPosition() {
+            return Double.isNaN(dispatchSecondsPerPosition) ? defaultDispatchSeconds : dispatchSecondsPerPosition;
+        }
+
+        double speed() {
+            return Double.isNaN(speedMps) ? defaultCruiseMps : speedMps;
+        }
+
+        void observeConfirm(double seconds) {
+            lock.lock();
+            try {
+                confirmSeconds = ewma(confirmSeconds, seconds);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void observePrep(double seconds, Tracked order) {
+            lock.lock();
+            try {
+                double perUnit = seconds / (1 + order.itemCount);
+                prepSecondsPerUnit = ewma(prepSecondsPerUnit, perUnit);
+                for (String item : order.itemNames) {
+                    Double previous = itemPrepSecondsPerUnit.get(item);
+                    itemPrepSecondsPerUnit.put(item, ewma(previous != null ? previous : Double.NaN, perUnit));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void observeDispatch(double secondsPerPosition) {
+            lock.lock();
+            try {
+                dispatchSecondsPerPosition = ewma(dispatchSecondsPerPosition, secondsPerPosition);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void observeSpeed(double mps) {
+            if (!(mps >= MIN_SPEED_MPS) || Double.isInfinite(mps)) {
+                return;
+            }
+            lock.lock();
+            try {
+                speedMps = ewma(speedMps, mps);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void observeDelivery(double minutes) {
+            lock.lock();
+            try {
+                deliveryMinutes = ewma(deliveryMinutes, minutes);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private double ewma(double current, double sample) {
+            return Double.isNaN(current) ? sample : current + alpha * (sample - current);
+        }
+    }
+}
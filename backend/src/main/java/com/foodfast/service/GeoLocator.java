@@ -0,0 +1,71 @@
+package com.foodfast.service;
+
+import com.foodfast.entity.Drone.PositionObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Geo Locator
+ * Resolves restaurants and delivery addresses to coordinates. Neither carries coordinates
+ * yet, so a key (restaurant id, address text) is hashed to a stable point inside the
+ * service area: the same key always lands on the same spot, across restarts.
+ */
+@Service
+public class GeoLocator {
+
+    private final double minLat;
+    private final double maxLat;
+    private final double minLng;
+    private final double maxLng;
+
+    public GeoLocator(
+            @Value("${foodfast.geo.area.min-lat:10.72}") double minLat,
+            @Value("${foodfast.geo.area.max-lat:10.82}") double maxLat,
+            @Value("${foodfast.geo.area.min-lng:106.63}") double minLng,
+            @Value("${foodfast.geo.area.max-lng:106.74}") double maxLng) {
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLng = minLng;
+        this.maxLng = maxLng;
+    }
+
+    public PositionObject locateRestaurant(String restaurantId) {
+        return locate("restaurant:" + restaurantId);
+    }
+
+    public PositionObject locateAddress(String address) {
+        return locate("address:" + (address != null ? address.trim().toLowerCase(Locale.ROOT) : ""));
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public double getMinLng() {
+        return minLng;
+    }
+
+    public double getMaxLng() {
+        return maxLng;
+    }
+
+    public boolean contains(double lat, double lng) {
+        return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+    }
+
+    private PositionObject locate(String key) {
+        ByteBuffer digest = ByteBuffer.wrap(DigestUtils.md5Digest(key.getBytes(StandardCharsets.UTF_8)));
+        double u = Integer.toUnsignedLong(digest.getInt(0)) / (double) 0x1_0000_0000L;
+        double v = Integer.toUnsignedLong(digest.getInt(4)) / (double) 0x1_0000_0000L;
+        return new PositionObject(minLat + (maxLat - minLat) * u, minLng + (maxLng - minLng) * v);
+    }
+}
@@ -0,0 +1,47 @@
+package com.foodfast.service;
+
+import com.foodfast.entity.Drone.PositionObject;
+
+/**
+ * Geo helpers for city-scale distances (haversine) and straight-line movement.
+ * Over a few kilometres a line in lat/lng space is indistinguishable from the great circle.
+ */
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+    private GeoUtils() {
+    }
+
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public static double distanceMeters(PositionObject from, PositionObject to) {
+        return distanceMeters(from.lat, from.lng, to.lat, to.lng);
+    }
+
+    /**
+     * Point at the given fraction (0..1) of the way from one point to another
+     */
+    public static PositionObject interpolate(PositionObject from, PositionObject to, double fraction) {
+        double f = Math.max(0.0, Math.min(1.0, fraction));
+        return new PositionObject(from.lat + (to.lat - from.lat) * f, from.lng + (to.lng - from.lng) * f);
+    }
+
+    /**
+     * Point reached by going a distance along a bearing (degrees clockwise from north)
+     */
+    public static PositionObject offset(PositionObject from, double bearingDegrees, double distanceMeters) {
+        double bearing = Math.toRadians(bearingDegrees);
+        double dLat = distanceMeters * Math.cos(bearing) / EARTH_RADIUS_METERS;
+        double dLng = distanceMeters * Math.sin(bearing)
+                / (EARTH_RADIUS_METERS * Math.cos(Math.toRadians(from.lat)));
+        return new PositionObject(from.lat + Math.toDegrees(dLat), from.lng + Math.toDegrees(dLng));
+    }
+}
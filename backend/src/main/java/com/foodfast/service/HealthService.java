@@ -0,0 +1,259 @@
+package com.foodfast.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health Service
+ * Liveness and readiness probes. Readiness times a trivial query against the database
+ * and a send through the STOMP broker channel, and checks Tomcat request-thread,
+ * connection-pool, channel executor and notification-pipeline saturation, so the
+ * instance reports unready under backpressure before latency collapses.
+ */
+@Service
+public class HealthService {
+
+    public static final String UP = "UP";
+    public static final String DOWN = "DOWN";
+
+    private static final String PROBE_DESTINATION = "/topic/health/probe";
+
+    private final ApplicationContext applicationContext;
+    private final DataSource dataSource;
+    private final JdbcTemplate probeTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPipeline notificationPipeline;
+    private final Map<String, Executor> channelExecutors = new LinkedHashMap<>();
+
+    private final double requestThreadsMaxBusy;
+    private final long dbMaxLatencyMillis;
+    private final int poolMaxWaiting;
+    private final long brokerMaxLatencyMillis;
+    private final int channelMaxQueue;
+    private final double pipelineMaxFill;
+
+    public HealthService(
+            ApplicationContext applicationContext,
+            DataSource dataSource,
+            SimpMessagingTemplate messagingTemplate,
+            NotificationPipeline notificationPipeline,
+            @Qualifier("clientInboundChannelExecutor") Executor inbound,
+            @Qualifier("clientOutboundChannelExecutor") Executor outbound,
+            @Value("${foodfast.health.tomcat.max-busy-ratio:0.9}") double requestThreadsMaxBusy,
+            @Value("${foodfast.health.db.max-latency-ms:250}") long dbMaxLatencyMillis,
+            @Value("${foodfast.health.db.query-timeout-seconds:2}") int dbQueryTimeoutSeconds,
+            @Value("${foodfast.health.pool.max-waiting:3}") int poolMaxWaiting,
+            @Value("${foodfast.health.broker.max-latency-ms:100}") long brokerMaxLatencyMillis,
+            @Value("${foodfast.health.channel.max-queue:500}") int channelMaxQueue,
+            @Value("${foodfast.health.pipeline.max-fill:0.8}") double pipelineMaxFill) {
+        this.applicationContext = applicationContext;
+        this.dataSource = dataSource;
+        this.probeTemplate = new JdbcTemplate(dataSource);
+        this.probeTemplate.setQueryTimeout(dbQueryTimeoutSeconds);
+        this.messagingTemplate = messagingTemplate;
+        this.notificationPipeline = notificationPipeline;
+        this.channelExecutors.put("inbound", inbound);
+        this.channelExecutors.put("outbound", outbound);
+        this.requestThreadsMaxBusy = requestThreadsMaxBusy;
+        this.dbMaxLatencyMillis = dbMaxLatencyMillis;
+        this.poolMaxWaiting = poolMaxWaiting;
+        this.brokerMaxLatencyMillis = brokerMaxLatencyMillis;
+        this.channelMaxQueue = channelMaxQueue;
+        this.pipelineMaxFill = pipelineMaxFill;
+    }
+
+    /**
+     * Liveness: the process is up and serving requests; no dependency is touched
+     */
+    public Map<String, Object> liveness() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", UP);
+        result.put("uptimeMs", ManagementFactory.getRuntimeMXBean().getUptime());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * Readiness: UP only when every check is UP
+     */
+    public Map<String, Object> readiness() {
+        Map<String, Object> checks = new LinkedHashMap<>();
+        checks.put("requestThreads", checkRequestThreads());
+        Map<String, Object> pool = checkConnectionPool();
+        checks.put("connectionPool", pool);
+        // Do not queue another connection request on a saturated pool
+        checks.put("database", UP.equals(pool.get("status")) ? checkDatabase() : skipped("connection pool saturated"));
+        checks.put("broker", checkBroker());
+        checks.put("channels", checkChannels());
+        checks.put("notificationPipeline", checkNotificationPipeline());
+
+        boolean ready = checks.values().stream()
+                .allMatch(check -> UP.equals(((Map<?, ?>) check).get("status")));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", ready ? UP : DOWN);
+        result.put("checks", checks);
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * Tomcat request executor: blocking JDBC calls hold request threads, so this pool
+     * saturates before the connection pool or the channels do
+     */
+    private Map<String, Object> checkRequestThreads() {
+        Map<String, Object> check = new LinkedHashMap<>();
+        Executor executor = null;
+        if (applicationContext instanceof WebServerApplicationContext web
+                && web.getWebServer() instanceof TomcatWebServer tomcat) {
+            executor = tomcat.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        }
+        int busy;
+        int max;
+        int queued;
+        if (executor instanceof org.apache.tomcat.util.threads.ThreadPoolExecutor pool) {
+            busy = pool.getActiveCount();
+            max = pool.getMaximumPoolSize();
+            queued = pool.getQueue().size();
+        } else if (executor instanceof java.util.concurrent.ThreadPoolExecutor pool) {
+            busy = pool.getActiveCount();
+            max = pool.getMaximumPoolSize();
+            queued = pool.getQueue().size();
+        } else {
+            // No web server yet, or virtual threads (no fixed pool to exhaust)
+            check.put("status", UP);
+            check.put("detail", executor == null ? "no Tomcat executor" : "unbounded executor");
+            return check;
+        }
+        double ratio = max > 0 ? (double) busy / max : 0;
+        check.put("status", ratio <= requestThreadsMaxBusy ? UP : DOWN);
+        check.put("busy", busy);
+        check.put("max", max);
+        check.put("queued", queued);
+        check.put("maxBusyRatio", requestThreadsMaxBusy);
+        return check;
+    }
+
+    private Map<String, Object> checkDatabase() {
+        Map<String, Object> check = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        try {
+            probeTemplate.queryForObject("SELECT 1", Integer.class);
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            check.put("status", latency <= dbMaxLatencyMillis ? UP : DOWN);
+            check.put("latencyMs", latency);
+            check.put("maxLatencyMs", dbMaxLatencyMillis);
+        } catch (Exception e) {
+            check.put("status", DOWN);
+            check.put("latencyMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            check.put("error", e.getMessage());
+        }
+        return check;
+    }
+
+    private Map<String, Object> checkConnectionPool() {
+        Map<String, Object> check = new LinkedHashMap<>();
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                check.put("status", UP);
+                check.put("detail", "not a Hikari pool");
+                return check;
+            }
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean poolBean = hikari.getHikariPoolMXBean();
+            if (poolBean == null) {
+                // Pool not started yet; the database probe will start it
+                check.put("status", UP);
+                check.put("detail", "pool not started");
+                return check;
+            }
+            int waiting = poolBean.getThreadsAwaitingConnection();
+            check.put("status", waiting <= poolMaxWaiting ? UP : DOWN);
+            check.put("active", poolBean.getActiveConnections());
+            check.put("idle", poolBean.getIdleConnections());
+            check.put("total", poolBean.getTotalConnections());
+            check.put("max", hikari.getMaximumPoolSize());
+            check.put("waiting", waiting);
+            check.put("maxWaiting", poolMaxWaiting);
+        } catch (Exception e) {
+            check.put("status", DOWN);
+            check.put("error", e.getMessage());
+        }
+        return check;
+    }
+
+    private Map<String, Object> checkBroker() {
+        Map<String, Object> check = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        try {
+            messagingTemplate.convertAndSend(PROBE_DESTINATION, start);
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            check.put("status", latency <= brokerMaxLatencyMillis ? UP : DOWN);
+            check.put("latencyMs", latency);
+            check.put("maxLatencyMs", brokerMaxLatencyMillis);
+        } catch (Exception e) {
+            check.put("status", DOWN);
+            check.put("error", e.getMessage());
+        }
+        return check;
+    }
+
+    private Map<String, Object> checkChannels() {
+        Map<String, Object> check = new LinkedHashMap<>();
+        boolean up = true;
+        for (Map.Entry<String, Executor> entry : channelExecutors.entrySet()) {
+            if (!(entry.getValue() instanceof ThreadPoolTaskExecutor pool)) {
+                continue;
+            }
+            int queued = pool.getThreadPoolExecutor().getQueue().size();
+            Map<String, Object> channel = new LinkedHashMap<>();
+            channel.put("queued", queued);
+            channel.put("active", pool.getActiveCount());
+            channel.put("poolSize", pool.getPoolSize());
+            channel.put("maxPoolSize", pool.getMaxPoolSize());
+            check.put(entry.getKey(), channel);
+            if (queued > channelMaxQueue) {
+                up = false;
+            }
+        }
+        check.put("maxQueue", channelMaxQueue);
+        check.put("status", up ? UP : DOWN);
+        return check;
+    }
+
+    private Map<String, Object> checkNotificationPipeline() {
+        int depth = notificationPipeline.getQueueDepth();
+        int capacity = notificationPipeline.getCapacity();
+        double fill = capacity > 0 ? (double) depth / capacity : 0;
+
+        Map<String, Object> check = new LinkedHashMap<>();
+        check.put("status", fill <= pipelineMaxFill ? UP : DOWN);
+        check.put("queueDepth", depth);
+        check.put("capacity", capacity);
+        check.put("lastLagMs", notificationPipeline.getLastLagMillis());
+        return check;
+    }
+
+    private Map<String, Object> skipped(String reason) {
+        Map<String, Object> check = new LinkedHashMap<>();
+        check.put("status", DOWN);
+        check.put("detail", "skipped: " + reason);
+        return check;
+    }
+}
@@ -0,0 +1,269 @@
+package com.foodfast.service;
+
+import com.foodfast.entity.Order;
+import com.foodfast.entity.OrderStatus;
+import com.foodfast.event.OrderChangedEvent;
+import com.foodfast.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Kitchen Queue
+ * Live per-restaurant queue of active orders (PENDING through READY), kept in priority
+ * order as committed order events arrive, so dashboards read a ranked list instead of
+ * sorting every order themselves. Priority is the time the next kitchen step must start
+ * by: the promised time (order age plus promise-minutes) minus the remaining preparation
+ * for the order's item count and stage. The key does not depend on the current time, so
+ * ranks only move when an order is added, advances or leaves. Each change pushes the
+ * orders whose rank moved to /topic/kitchen/{restaurantId}.
+ */
+@Service
+public class KitchenQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenQueue.class);
+
+    private static final Set<OrderStatus> ACTIVE = EnumSet.of(
+            OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.READY);
+
+    private static final Comparator<Entry> PRIORITY = Comparator
+            .comparingLong((Entry entry) -> entry.startBy)
+            .thenComparingLong(entry -> entry.createdAt)
+            .thenComparing(entry -> entry.orderId);
+
+    private final OrderRepository orderRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final long promiseMillis;
+    private final long basePrepMillis;
+    private final long perItemPrepMillis;
+
+    private final ConcurrentHashMap<String, Board> boards = new ConcurrentHashMap<>();
+
+    public KitchenQueue(
+            OrderRepository orderRepository,
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${foodfast.kitchen.promise-minutes:30}") long promiseMinutes,
+            @Value("${foodfast.kitchen.base-prep-seconds:300}") long basePrepSeconds,
+            @Value("${foodfast.kitchen.per-item-prep-seconds:60}") long perItemPrepSeconds) {
+        this.orderRepository = orderRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.promiseMillis = TimeUnit.MINUTES.toMillis(promiseMinutes);
+        this.basePrepMillis = TimeUnit.SECONDS.toMillis(basePrepSeconds);
+        this.perItemPrepMillis = TimeUnit.SECONDS.toMillis(perItemPrepSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Order> active = orderRepository.findByStatusIn(ACTIVE);
+        for (Order order : active) {
+            String restaurantId = order.getRestaurantId() != null ? order.getRestaurantId() : order.getRestaurant();
+            if (restaurantId == null) {
+                continue;
+            }
+            int itemCount = order.getItems().stream().mapToInt(item -> Math.max(item.getQty(), 0)).sum();
+            Board board = board(restaurantId);
+            board.lock.lock();
+            try {
+                board.put(entry(order.getId(), order.getStatusEnum(), itemCount, order.getCreatedAt()));
+                board.published = board.ranking();
+            } finally {
+                board.lock.unlock();
+            }
+        }
+        log.info("Loaded {} active orders", active.size());
+    }
+
+    /**
+     * Runs after the order transaction committed (or directly when there was none)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        Board board = board(event.getRestaurantId());
+        Map<String, Object> diff;
+        board.lock.lock();
+        try {
+            if (ACTIVE.contains(event.getStatus())) {
+                board.put(entry(event.getOrderId(), event.getStatus(), event.getItemCount(), event.getCreatedAt()));
+            } else if (!board.remove(event.getOrderId())) {
+                return;
+            }
+            diff = board.publishDiff(event.getOrderId());
+        } finally {
+            board.lock.unlock();
+        }
+        if (diff != null) {
+            diff.put("restaurantId", event.getRestaurantId());
+            messagingTemplate.convertAndSend("/topic/kitchen/" + event.getRestaurantId(), diff);
+        }
+    }
+
+    /**
+     * Current queue, most urgent first; slackMs is how long until the order's next step
+     * must start (negative when it is already late)
+     */
+    public Map<String, Object> getQueue(String restaurantId, int limit) {
+        Board board = boards.get(restaurantId);
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> orders = new ArrayList<>();
+        if (board != null) {
+            int rank = 0;
+            for (Entry entry : board.queue) {
+                if (rank >= limit) {
+                    break;
+                }
+                orders.add(entry.describe(++rank, now));
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("restaurantId", restaurantId);
+        result.put("size", board != null ? board.byOrder.size() : 0);
+        result.put("sequence", board != null ? board.sequence : 0);
+        result.put("generatedAt", now);
+        result.put("orders", orders);
+        return result;
+    }
+
+    private Board board(String restaurantId) {
+        return boards.computeIfAbsent(restaurantId, id -> new Board());
+    }
+
+    private Entry entry(String orderId, OrderStatus status, int itemCount, long createdAt) {
+        long promisedAt = createdAt + promiseMillis;
+        long prepMillis = basePrepMillis + itemCount * perItemPrepMillis;
+        long remainingMillis = switch (status) {
+            case PREPARING -> prepMillis / 2;
+            case READY -> 0;
+            default -> prepMillis;
+        };
+        return new Entry(orderId, status, itemCount, createdAt, promisedAt, promisedAt - remainingMillis);
+    }
+
+    private static final class Entry {
+        final String orderId;
+        final OrderStatus status;
+        final int itemCount;
+        final long createdAt;
+        final long promisedAt;
+        final long startBy;
+
+        Entry(String orderId, OrderStatus status, int itemCount, long createdAt, long promisedAt, long startBy) {
+            this.orderId = orderId;
+            this.status = status;
+            this.itemCount = itemCount;
+            this.createdAt = createdAt;
+            this.promisedAt = promisedAt;
+            this.startBy = startBy;
+        }
+
+        Map<String, Object> describe(int rank, long now) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("orderId", orderId);
+            info.put("rank", rank);
+            info.put("status", status.getLabel());
+            info.put("itemCount", itemCount);
+            info.put("createdAt", createdAt);
+            info.put("promisedAt", promisedAt);
+            info.put("startBy", startBy);
+            info.put("slackMs", startBy - now);
+            return info;
+        }
+    }
+
+    /**
+     * One restaurant's queue. Readers iterate the skip list without locking; writers take
+     * the lock so the entry swap and the rank diff they publish stay in order.
+     */
+    private static final class Board {
+        final ReentrantLock lock = new ReentrantLock();
+        final ConcurrentSkipListSet<Entry> queue = new ConcurrentSkipListSet<>(PRIORITY);
+        final ConcurrentHashMap<String, Entry> byOrder = new ConcurrentHashMap<>();
+        List<String> published = List.of(); // Guarded by lock
+        volatile long sequence;
+
+        void put(Entry entry) {
+            Entry previous = byOrder.put(entry.orderId, entry);
+            if (previous != null) {
+                queue.remove(previous);
+            }
+            queue.add(entry);
+        }
+
+        boolean remove(String orderId) {
+            Entry previous = byOrder.remove(orderId);
+            if (previous == null) {
+                return false;
+            }
+            queue.remove(previous);
+            return true;
+        }
+
+        List<String> ranking() {
+            List<String> ranking = new ArrayList<>(byOrder.size());
+            for (Entry entry : queue) {
+                ranking.add(entry.orderId);
+            }
+            return ranking;
+        }
+
+        /**
+         * Orders whose rank moved since the last push, the order that triggered the push
+         * (its stage may have changed in place) and the orders that left; null when nothing changed
+         */
+        Map<String, Object> publishDiff(String touchedOrderId) {
+            List<String> ranking = ranking();
+            Map<String, Integer> previousRanks = new HashMap<>();
+            for (int i = 0; i < published.size(); i++) {
+                previousRanks.put(published.get(i), i + 1);
+            }
+            long now = System.currentTimeMillis();
+            List<Map<String, Object>> changed = new ArrayList<>();
+            for (int i = 0; i < ranking.size(); i++) {
+                String orderId = ranking.get(i);
+                Integer previousRank = previousRanks.remove(orderId);
+                if (previousRank == null || previousRank != i + 1 || orderId.equals(touchedOrderId)) {
+                    Entry entry = byOrder.get(orderId);
+                    Map<String, Object> info = entry.describe(i + 1, now);
+                    info.put("previousRank", previousRank);
+                    changed.add(info);
+                }
+            }
+            List<String> removed = new ArrayList<>(previousRanks.keySet());
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return null;
+            }
+            published = ranking;
+            sequence++;
+
+            Map<String, Object> diff = new HashMap<>();
+            diff.put("type", "KITCHEN_QUEUE");
+            diff.put("sequence", sequence);
+            diff.put("size", ranking.size());
+            diff.put("changed", changed);
+            diff.put("removed", removed);
+            return diff;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.foodfast.service;
+
+import com.foodfast.event.OrderChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notification Pipeline
+ * Creates restaurant notifications from committed order events on a background worker.
+ * Events wait in a bounded queue; the worker drains bursts (up to a short coalescing
+ * window), drops duplicate (order, status) pairs and writes each restaurant's share in
+ * one transaction with one push. When the queue is full the publishing thread creates
+ * its notification itself, so nothing is lost and producers are slowed down instead.
+ */
+@Component
+public class NotificationPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPipeline.class);
+
+    private final NotificationService notificationService;
+    private final BlockingQueue<Pending> queue;
+    private final int capacity;
+    private final int maxBatch;
+    private final long coalesceWindowNanos;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public NotificationPipeline(
+            NotificationService notificationService,
+            @Value("${foodfast.notifications.pipeline.capacity:10000}") int capacity,
+            @Value("${foodfast.notifications.pipeline.batch-size:500}") int maxBatch,
+            @Value("${foodfast.notifications.pipeline.coalesce-window-ms:50}") long coalesceWindowMillis) {
+        this.notificationService = notificationService;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.coalesceWindowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, coalesceWindowMillis));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "notification-pipeline");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever is still queued is written before the context closes
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            process(remaining);
+        }
+    }
+
+    /**
+     * Runs after the order transaction committed (or directly when there was none)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        Pending pending = new Pending(event);
+        if (running && queue.offer(pending)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        // Queue full (or shutting down): back-pressure by doing the work on the caller
+        callerRuns.incrementAndGet();
+        process(Collections.singletonList(pending));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    /**
+     * Queue depth, lag and throughput counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("capacity", capacity);
+        stats.put("enqueued", enqueued.get());
+        stats.put("processed", processed.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("callerRuns", callerRuns.get());
+        stats.put("failed", failed.get());
+        stats.put("batches", batches.get());
+        stats.put("lastLagMs", lastLagMillis.get());
+        stats.put("maxLagMs", maxLagMillis.get());
+        stats.put("running", running);
+        return stats;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Pending> batch = new ArrayList<>();
+                batch.add(first);
+                long deadline = System.nanoTime() + coalesceWindowNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || batch.size() >= maxBatch) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Worker error", e);
+            }
+        }
+    }
+
+    private void process(List<Pending> batch) {
+        long now = System.nanoTime();
+        long oldest = now;
+
+        // restaurantId -> (orderId:status -> latest event)
+        Map<String, Map<String, OrderChangedEvent>> byRestaurant = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            oldest = Math.min(oldest, pending.enqueuedAt);
+            OrderChangedEvent event = pending.event;
+            Map<String, OrderChangedEvent> events = byRestaurant.computeIfAbsent(
+                    event.getRestaurantId(), id -> new LinkedHashMap<>());
+            if (events.put(event.getOrderId() + ":" + event.getStatus(), event) != null) {
+                coalesced.incrementAndGet();
+            }
+        }
+
+        long lag = TimeUnit.NANOSECONDS.toMillis(now - oldest);
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        batches.incrementAndGet();
+
+        for (Map.Entry<String, Map<String, OrderChangedEvent>> entry : byRestaurant.entrySet()) {
+            List<OrderChangedEvent> events = new ArrayList<>(entry.getValue().values());
+            try {
+                notificationService.createNotifications(entry.getKey(), events);
+                processed.addAndGet(events.size());
+            } catch (Exception e) {
+                failed.addAndGet(events.size());
+                log.error("Failed to create {} notifications for restaurant {}", events.size(), entry.getKey(), e);
+            }
+        }
+    }
+
+    private static class Pending {
+        final OrderChangedEvent event;
+        final long enqueuedAt = System.nanoTime();
+
+        Pending(OrderChangedEvent event) {
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.foodfast.service;
+
+import com.foodfast.entity.Notification;
+import com.foodfast.entity.NotificationDailySummary;
+import com.foodfast.repository.NotificationDailySummaryRepository;
+import com.foodfast.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification Retention Service
+ * Rolls notifications older than the retention window into per-restaurant daily
+ * summaries and deletes them in bounded batches (one short transaction per batch),
+ * so the notifications table stays small no matter how long the system runs.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationDailySummaryRepository summaryRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final long retentionMillis;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public NotificationRetentionService(
+            NotificationRepository notificationRepository,
+            NotificationDailySummaryRepository summaryRepository,
+            NotificationService notificationService,
+            TransactionTemplate transactionTemplate,
+            @Value("${foodfast.notifications.retention.days:30}") long retentionDays,
+            @Value("${foodfast.notifications.retention.batch-size:500}") int batchSize,
+            @Value("${foodfast.notifications.retention.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.notificationRepository = notificationRepository;
+        this.summaryRepository = summaryRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionMillis = TimeUnit.DAYS.toMillis(retentionDays);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${foodfast.notifications.retention.interval-ms:3600000}",
+            initialDelayString = "${foodfast.notifications.retention.initial-delay-ms:60000}")
+    public void compact() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        int removed = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int count = compactBatch(cutoff);
+            removed += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            log.info("Rolled up and deleted {} notifications", removed);
+        }
+    }
+
+    public List<NotificationDailySummary> getSummaries(String restaurantId) {
+        return summaryRepository.findByRestaurantIdOrderByDayDesc(restaurantId);
+    }
+
+    private int compactBatch(long cutoff) {
+        Map<String, Long> unreadRemoved = new HashMap<>();
+        Integer count = transactionTemplate.execute(status -> {
+            List<Notification> batch = notificationRepository.findByTimestampLessThanOrderByTimestampAsc(
+                    cutoff, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            Map<String, NotificationDailySummary> summaries = new HashMap<>();
+            List<String> ids = new ArrayList<>(batch.size());
+            for (Notification notification : batch) {
+                String restaurantId = notification.getRestaurantId();
+                String day = Instant.ofEpochMilli(notification.getTimestamp())
+                        .atZone(ZoneId.systemDefault())
+                        .toLocalDate()
+                        .toString();
+                NotificationDailySummary summary = summaries.computeIfAbsent(restaurantId + ":" + day,
+                        id -> summaryRepository.findById(id)
+                                .orElseGet(() -> new NotificationDailySummary(restaurantId, day)));
+                summary.add(notification);
+                if (!notification.getIsRead()) {
+                    unreadRemoved.merge(restaurantId, 1L, Long::sum);
+                }
+                ids.add(notification.getId());
+            }
+
+            summaryRepository.saveAll(summaries.values());
+            notificationRepository.deleteAllByIdInBatch(ids);
+            return batch.size();
+        });
+
+        // Counters only change once the batch has committed
+        unreadRemoved.forEach(notificationService::onUnreadRemoved);
+        return count != null ? count : 0;
+    }
+}
@@ -1,44 +1,89 @@
 package com.foodfast.service;
 
 import com.foodfast.entity.Notification;
-import com.foodfast.entity.Order;
+import com.foodfast.event.OrderChangedEvent;
 import com.foodfast.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Notification Service
- * Handles restaurant notifications for new orders
+ * Handles restaurant notifications for new orders.
+ * Notifications are created by NotificationPipeline from committed order events.
+ * New notifications and unread-count changes are pushed to /topic/notifications/{restaurantId};
+ * unread counts are kept in per-restaurant counters seeded from the database. Counter changes
+ * and pushes happen only after the transaction commits (a rollback leaves them untouched),
+ * and the counters are re-counted from the database periodically to correct any drift.
  */
 @Service
 public class NotificationService {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
     private final NotificationRepository notificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final ConcurrentHashMap<String, Long> unreadCounters = new ConcurrentHashMap<>();
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository, SimpMessagingTemplate messagingTemplate) {
         this.notificationRepository = notificationRepository;
+        this.messagingTemplate = messagingTemplate;
     }
 
     /**
-     * Create a notification for a new order
+     * Create the notifications for a batch of committed order events of one restaurant
+     * in a single transaction, then push them in a single message
+     * (runs after the order transaction, so it always starts a new one)
      */
-    @Transactional
-    public Notification createNotification(Order order) {
-        Notification notification = new Notification();
-        notification.setId(UUID.randomUUID().toString());
-        notification.setRestaurantId(order.getRestaurantId() != null ? order.getRestaurantId() : order.getRestaurant());
-        notification.setOrderId(order.getId());
-        notification.setCustomerName(order.getCustomerName());
-        notification.setCustomerPhone(order.getCustomerPhone());
-        notification.setTotal((long) order.getTotal());
-        notification.setStatus(order.getStatusString());
-        notification.setTimestamp(System.currentTimeMillis());
-        notification.setIsRead(false);
-        
-        return notificationRepository.save(notification);
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Notification> createNotifications(String restaurantId, List<OrderChangedEvent> events) {
+        if (restaurantId == null || events.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Notification> notifications = new ArrayList<>(events.size());
+        for (OrderChangedEvent event : events) {
+            Notification notification = new Notification();
+            notification.setId(UUID.randomUUID().toString());
+            notification.setRestaurantId(restaurantId);
+            notification.setOrderId(event.getOrderId());
+            notification.setCustomerName(event.getCustomerName());
+            notification.setCustomerPhone(event.getCustomerPhone());
+            notification.setTotal(event.getTotal());
+            notification.setStatus(event.getStatusLabel());
+            notification.setTimestamp(event.getOccurredAt());
+            notification.setIsRead(false);
+            notifications.add(notification);
+        }
+
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+
+        afterCommit(() -> {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("type", "CREATED");
+            payload.put("notification", saved.get(saved.size() - 1));
+            payload.put("notifications", saved);
+            payload.put("unreadCount", applyUnreadDelta(restaurantId, saved.size()));
+            messagingTemplate.convertAndSend("/topic/notifications/" + restaurantId, payload);
+        });
+        return saved;
     }
 
     /**
@@ -50,30 +95,133 @@ public class NotificationService {
     }
 
     /**
-     * Get unread notifications for a restaurant
+     * Get one page of notifications for a restaurant, newest first
      */
     @Transactional(readOnly = true)
-    public List<Notification> getUnreadNotifications(String restaurantId) {
-        return notificationRepository.findByRestaurantIdAndIsReadFalseOrderByTimestampDesc(restaurantId);
+    public Page<Notification> getNotifications(String restaurantId, boolean unreadOnly, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        return unreadOnly
+                ? notificationRepository.findByRestaurantIdAndIsReadFalseOrderByTimestampDesc(restaurantId, pageRequest)
+                : notificationRepository.findByRestaurantIdOrderByTimestampDesc(restaurantId, pageRequest);
     }
 
     /**
-     * Mark notification as read
+     * Mark notification as read; only the call whose UPDATE flipped it counts it
      */
     @Transactional
     public void markAsRead(String notificationId) {
         notificationRepository.findById(notificationId).ifPresent(notification -> {
+            if (notification.getIsRead()) {
+                return;
+            }
+            String restaurantId = notification.getRestaurantId();
+            if (notificationRepository.markReadByIds(restaurantId, List.of(notificationId)) == 0) {
+                return; // Read concurrently
+            }
             notification.setIsRead(true);
-            notificationRepository.save(notification);
+            afterCommit(() -> publish(restaurantId, "READ", notification, applyUnreadDelta(restaurantId, -1)));
         });
     }
 
     /**
-     * Get unread count for a restaurant
+     * Mark many notifications of a restaurant as read with a single UPDATE:
+     * either the given ids, or everything with timestamp <= upTo
+     * Returns the number of notifications that changed from unread to read
+     */
+    @Transactional
+    public int markAsRead(String restaurantId, Collection<String> ids, Long upTo) {
+        int updated;
+        if (ids != null && !ids.isEmpty()) {
+            updated = notificationRepository.markReadByIds(restaurantId, ids);
+        } else if (upTo != null) {
+            updated = notificationRepository.markReadUpTo(restaurantId, upTo);
+        } else {
+            throw new IllegalArgumentException("Either ids or upTo is required");
+        }
+        if (updated > 0) {
+            afterCommit(() -> publish(restaurantId, "READ_BULK", null, applyUnreadDelta(restaurantId, -updated)));
+        }
+        return updated;
+    }
+
+    /**
+     * Called by the retention job after it deleted unread notifications
+     */
+    public void onUnreadRemoved(String restaurantId, long count) {
+        if (count > 0) {
+            // Not seeded yet: the next seed counts the database, which no longer has them
+            unreadCounters.computeIfPresent(restaurantId, (id, current) -> Math.max(0, current - count));
+        }
+    }
+
+    /**
+     * Get unread count for a restaurant (served from the in-memory counter)
      */
-    @Transactional(readOnly = true)
     public long getUnreadCount(String restaurantId) {
-        return notificationRepository.countByRestaurantIdAndIsReadFalse(restaurantId);
+        if (restaurantId == null) {
+            return 0;
+        }
+        return unreadCounters.computeIfAbsent(restaurantId, notificationRepository::countByRestaurantIdAndIsReadFalse);
+    }
+
+    /**
+     * Re-count every seeded counter from the database and push the ones that had drifted
+     */
+    @Scheduled(fixedDelayString = "${foodfast.notifications.unread-reconcile-ms:300000}",
+            initialDelayString = "${foodfast.notifications.unread-reconcile-ms:300000}")
+    public void reconcileUnreadCounts() {
+        for (String restaurantId : unreadCounters.keySet()) {
+            long[] previous = {-1};
+            Long counted = unreadCounters.computeIfPresent(restaurantId, (id, current) -> {
+                previous[0] = current;
+                return notificationRepository.countByRestaurantIdAndIsReadFalse(id);
+            });
+            if (counted != null && counted != previous[0]) {
+                log.warn("Unread count of {} corrected from {} to {}", restaurantId, previous[0], counted);
+                publish(restaurantId, "UNREAD_COUNT", null, counted);
+            }
+        }
+    }
+
+    /**
+     * Apply a committed change to the unread counter in one atomic step. An unseeded
+     * counter is seeded from the database instead, which already includes the change.
+     */
+    private long applyUnreadDelta(String restaurantId, long delta) {
+        if (restaurantId == null) {
+            return 0;
+        }
+        return unreadCounters.compute(restaurantId, (id, current) -> current != null
+                ? Math.max(0, current + delta)
+                : notificationRepository.countByRestaurantIdAndIsReadFalse(id));
+    }
+
+    /**
+     * Run once the surrounding transaction has committed (right away without one)
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
     }
-}
 
+    private void publish(String restaurantId, String type, Notification notification, long unreadCount) {
+        if (restaurantId == null) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", type);
+        payload.put("notification", notification);
+        payload.put("unreadCount", unreadCount);
+        messagingTemplate.convertAndSend("/topic/notifications/" + restaurantId, payload);
+    }
+}
@@ -2,44 +2,84 @@ package com.foodfast.service;
 
 import com.foodfast.controller.OrderController;
 import com.foodfast.dto.CreateOrderRequest;
+import com.foodfast.dto.OrderPatch;
+import com.foodfast.entity.Drone.PositionObject;
 import com.foodfast.entity.Order;
 import com.foodfast.entity.OrderItem;
 import com.foodfast.entity.OrderStatus;
+import com.foodfast.entity.WaypointCodec;
+import com.foodfast.event.OrderChangedEvent;
 import com.foodfast.event.OrderEventPublisher;
+import com.foodfast.exception.OrderConflictException;
 import com.foodfast.repository.OrderRepository;
+import com.foodfast.repository.OrderRepository.OrderState;
+import com.foodfast.repository.PartialUpdateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
     private final OrderRepository orderRepository;
+    private final PartialUpdateRepository partialUpdateRepository;
     private final OrderEventPublisher orderEventPublisher;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RoutePlanner routePlanner;
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    // Pre-registered per outcome so the hot path only records a duration
+    private final OrderTimers createTimers;
+    private final OrderTimers updateStatusTimers;
+    private final OrderTimers patchTimers;
+    private final OrderTimers saveTimers;
 
     public OrderService(
             OrderRepository orderRepository, 
+            PartialUpdateRepository partialUpdateRepository,
             OrderEventPublisher orderEventPublisher,
-            NotificationService notificationService) {
+            ApplicationEventPublisher applicationEventPublisher,
+            RoutePlanner routePlanner,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
+        this.partialUpdateRepository = partialUpdateRepository;
         this.orderEventPublisher = orderEventPublisher;
-        this.notificationService = notificationService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.routePlanner = routePlanner;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.createTimers = new OrderTimers(meterRegistry, "create");
+        this.updateStatusTimers = new OrderTimers(meterRegistry, "update_status");
+        this.patchTimers = new OrderTimers(meterRegistry, "patch");
+        this.saveTimers = new OrderTimers(meterRegistry, "save");
     }
 
     @Transactional(readOnly = true)
     public List<Order> findOrders(String paymentSessionId, String phone, String restaurant) {
         try {
-            System.out.println("[OrderService] findOrders - paymentSessionId: " 
-                    + paymentSessionId + ", phone: " + phone + ", restaurant: " + restaurant);
+            log.debug("findOrders - paymentSessionId: {}, phone: {}, restaurant: {}",
+                    paymentSessionId, phone, restaurant);
             
             List<Order> orders;
             
@@ -78,11 +118,10 @@ public class OrderService {
                 }
             }
 
-            System.out.println("[OrderService] Returning " + (orders != null ? orders.size() : 0) + " orders");
+            log.debug("Returning {} orders", orders != null ? orders.size() : 0);
             return orders != null ? orders : new ArrayList<>();
         } catch (Exception e) {
-            System.err.println("[OrderService] ERROR in findOrders: " + e.getMessage());
-            e.printStackTrace();
+            log.error("findOrders failed", e);
             throw e;
         }
     }
@@ -93,256 +132,357 @@ public class OrderService {
 
     @Transactional
     public Order createOrderFromRequest(CreateOrderRequest req) {
-        Order order = new Order();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean succeeded = false;
+        try {
+            Order order = new Order();
         
-        // Set ID if provided, otherwise generate
-        if (req.id != null && !req.id.trim().isEmpty()) {
-            order.setId(req.id);
-        } else {
-            order.setId(generateOrderId());
-        }
+            // Set ID if provided, otherwise generate
+            if (req.id != null && !req.id.trim().isEmpty()) {
+                order.setId(req.id);
+            } else {
+                order.setId(generateOrderId());
+            }
         
-        order.setCustomerName(req.customerName);
-        order.setCustomerPhone(req.customerPhone);
-        order.setAddress(req.address);
-        order.setRestaurantId(req.restaurantId);
-        order.setUserId(req.userId);
-        order.setPaymentSessionId(req.paymentSessionId);
+            order.setCustomerName(req.customerName);
+            order.setCustomerPhone(req.customerPhone);
+            order.setAddress(req.address);
+            order.setRestaurantId(req.restaurantId);
+            order.setUserId(req.userId);
+            order.setPaymentSessionId(req.paymentSessionId);
         
-        // Convert timestamps from long to Instant
-        if (req.createdAt > 0) {
-            order.setCreatedAt(Instant.ofEpochMilli(req.createdAt));
-        } else {
-            order.setCreatedAt(Instant.now());
-        }
+            // Convert timestamps from long to Instant
+            if (req.createdAt > 0) {
+                order.setCreatedAt(Instant.ofEpochMilli(req.createdAt));
+            } else {
+                order.setCreatedAt(Instant.now());
+            }
         
-        if (req.updatedAt > 0) {
-            order.setUpdatedAt(Instant.ofEpochMilli(req.updatedAt));
-        } else {
-            order.setUpdatedAt(Instant.now());
-        }
+            if (req.updatedAt > 0) {
+                order.setUpdatedAt(Instant.ofEpochMilli(req.updatedAt));
+            } else {
+                order.setUpdatedAt(Instant.now());
+            }
         
-        // Convert status from String to OrderStatus enum
-        if (req.status != null && !req.status.trim().isEmpty()) {
-            try {
-                order.setStatus(OrderStatus.valueOf(req.status.trim().toUpperCase(Locale.ROOT)));
-            } catch (IllegalArgumentException e) {
+            // Convert status from String to OrderStatus enum
+            if (req.status != null && !req.status.trim().isEmpty()) {
+                try {
+                    order.setStatus(OrderStatus.valueOf(req.status.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    order.setStatus(OrderStatus.PENDING);
+                }
+            } else {
                 order.setStatus(OrderStatus.PENDING);
             }
-        } else {
-            order.setStatus(OrderStatus.PENDING);
-        }
         
-        order.setPaymentMethod(req.paymentMethod);
-        order.setPaymentStatus(req.paymentStatus);
+            order.setPaymentMethod(req.paymentMethod);
+            order.setPaymentStatus(req.paymentStatus);
         
-        // Convert items and validate prices
-        List<OrderItem> items = new ArrayList<>();
-        if (req.items != null && !req.items.isEmpty()) {
-            for (CreateOrderRequest.Item i : req.items) {
-                if (i == null) {
-                    continue;
-                }
-                OrderItem item = new OrderItem();
-                item.setName(i.name != null ? i.name : "");
-                // Support both qty and quantity fields from frontend
-                int itemQty = i.getQuantity();
-                item.setQty(itemQty);
-                // Ensure price is not zero - use price from request
-                System.out.println("[DEBUG] Incoming item: " + i.name + " rawPrice=" + i.price);
-                int itemPrice = 0;
-                try {
-                    itemPrice = Math.toIntExact(i.price);
-                } catch (Exception e) {
-                    System.err.println("[PRICE ERROR] Invalid price: " + i.price);
-                    itemPrice = 0;
+            // Convert items and validate prices
+            List<OrderItem> items = new ArrayList<>();
+            if (req.items != null && !req.items.isEmpty()) {
+                for (CreateOrderRequest.Item i : req.items) {
+                    if (i == null) {
+                        continue;
+                    }
+                    OrderItem item = new OrderItem();
+                    item.setName(i.name != null ? i.name : "");
+                    // Support both qty and quantity fields from frontend
+                    int itemQty = i.getQuantity();
+                    item.setQty(itemQty);
+                    // Ensure price is not zero - use price from request
+                    log.debug("Incoming item: {} rawPrice={}", i.name, i.price);
+                    int itemPrice = 0;
+                    try {
+                        itemPrice = Math.toIntExact(i.price);
+                    } catch (Exception e) {
+                        log.warn("Invalid price: {}", i.price);
+                        itemPrice = 0;
+                    }
+                    item.setPrice(itemPrice);
+                    item.setOrder(order);
+                    items.add(item);
+                    log.debug("Added item: {} x{} @ {} (lineTotal: {})", i.name, itemQty, itemPrice, item.lineTotal());
                 }
-                item.setPrice(itemPrice);
-                item.setOrder(order);
-                items.add(item);
-                System.out.println("[OrderService] Added item: " + i.name + " x" + itemQty + " @ " + itemPrice + " (lineTotal: " + item.lineTotal() + ")");
             }
-        }
         
-        order.setItems(items);
+            order.setItems(items);
         
-        // Always recalculate total from items
-        order.recalculateTotal();
+            // Always recalculate total from items
+            order.recalculateTotal();
         
-        System.out.println("[DEBUG] Saving order " + order.getId() + " total=" + order.getTotal() + " items=" + order.getItems());
-        System.out.println("[OrderService] Order " + order.getId() + " total calculated = " + order.getTotal());
-        System.out.println("[OrderService] Order has " + (items != null ? items.size() : 0) + " items");
+            log.debug("Saving order {} total={} items={}", order.getId(), order.getTotal(), items.size());
         
-        Order saved = orderRepository.save(order);
-        orderEventPublisher.publishOrderUpdate(saved);
+            Order saved = orderRepository.save(order);
+            orderEventPublisher.publishOrderUpdate(saved);
         
-        // Create notification for restaurant
-        try {
-            notificationService.createNotification(saved);
-        } catch (Exception e) {
-            // Log but don't fail order creation if notification fails
-            System.err.println("[OrderService] Failed to create notification: " + e.getMessage());
+            // Restaurant notification is created by NotificationPipeline after commit
+            applicationEventPublisher.publishEvent(OrderChangedEvent.created(saved));
+
+            succeeded = true;
+            return saved;
+        } finally {
+            sample.stop(createTimers.get(succeeded));
         }
-        
-        return saved;
     }
 
     @Transactional
     public Order createOrder(CreateOrderRequest req) {
-        Order order = new Order();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean succeeded = false;
+        try {
+            Order order = new Order();
         
-        // Set ID if provided, otherwise generate
-        if (req.id != null && !req.id.trim().isEmpty()) {
-            order.setId(req.id);
-        } else {
-            order.setId(generateOrderId());
-        }
+            // Set ID if provided, otherwise generate
+            if (req.id != null && !req.id.trim().isEmpty()) {
+                order.setId(req.id);
+            } else {
+                order.setId(generateOrderId());
+            }
         
-        // Copy basic fields
-        order.setCustomerName(req.customerName);
-        order.setCustomerPhone(req.customerPhone);
-        order.setAddress(req.address);
+            // Copy basic fields
+            order.setCustomerName(req.customerName);
+            order.setCustomerPhone(req.customerPhone);
+            order.setAddress(req.address);
         
-        // Convert status from String to OrderStatus enum
-        if (req.status != null && !req.status.trim().isEmpty()) {
-            try {
-                order.setStatus(OrderStatus.valueOf(req.status.trim().toUpperCase(Locale.ROOT)));
-            } catch (IllegalArgumentException e) {
+            // Convert status from String to OrderStatus enum
+            if (req.status != null && !req.status.trim().isEmpty()) {
+                try {
+                    order.setStatus(OrderStatus.valueOf(req.status.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    order.setStatus(OrderStatus.PENDING);
+                }
+            } else {
                 order.setStatus(OrderStatus.PENDING);
             }
-        } else {
-            order.setStatus(OrderStatus.PENDING);
-        }
         
-        // Copy restaurant and user info
-        order.setRestaurantId(req.restaurantId);
-        order.setUserId(req.userId);
-        order.setPaymentSessionId(req.paymentSessionId);
+            // Copy restaurant and user info
+            order.setRestaurantId(req.restaurantId);
+            order.setUserId(req.userId);
+            order.setPaymentSessionId(req.paymentSessionId);
         
-        // Copy payment info
-        order.setPaymentMethod(req.paymentMethod);
-        order.setPaymentStatus(req.paymentStatus);
+            // Copy payment info
+            order.setPaymentMethod(req.paymentMethod);
+            order.setPaymentStatus(req.paymentStatus);
         
-        // Convert timestamps from long to Instant
-        if (req.createdAt > 0) {
-            order.setCreatedAt(Instant.ofEpochMilli(req.createdAt));
-        } else {
-            order.setCreatedAt(Instant.now());
-        }
+            // Convert timestamps from long to Instant
+            if (req.createdAt > 0) {
+                order.setCreatedAt(Instant.ofEpochMilli(req.createdAt));
+            } else {
+                order.setCreatedAt(Instant.now());
+            }
         
-        if (req.updatedAt > 0) {
-            order.setUpdatedAt(Instant.ofEpochMilli(req.updatedAt));
-        } else {
-            order.setUpdatedAt(Instant.now());
-        }
+            if (req.updatedAt > 0) {
+                order.setUpdatedAt(Instant.ofEpochMilli(req.updatedAt));
+            } else {
+                order.setUpdatedAt(Instant.now());
+            }
         
-        // Convert items and validate prices
-        if (req.items != null && !req.items.isEmpty()) {
-            for (CreateOrderRequest.Item itemReq : req.items) {
-                if (itemReq == null) {
-                    continue;
-                }
-                OrderItem item = new OrderItem();
-                item.setName(itemReq.name != null ? itemReq.name : "");
-                // Support both qty and quantity fields from frontend
-                int itemQty = itemReq.getQuantity();
-                item.setQty(itemQty);
-                // Ensure price is not zero
-                System.out.println("[DEBUG] Incoming item: " + itemReq.name + " rawPrice=" + itemReq.price);
-                int itemPrice = 0;
-                try {
-                    itemPrice = Math.toIntExact(itemReq.price);
-                } catch (Exception e) {
-                    System.err.println("[PRICE ERROR] Invalid price: " + itemReq.price);
-                    itemPrice = 0;
+            // Convert items and validate prices
+            if (req.items != null && !req.items.isEmpty()) {
+                for (CreateOrderRequest.Item itemReq : req.items) {
+                    if (itemReq == null) {
+                        continue;
+                    }
+                    OrderItem item = new OrderItem();
+                    item.setName(itemReq.name != null ? itemReq.name : "");
+                    // Support both qty and quantity fields from frontend
+                    int itemQty = itemReq.getQuantity();
+                    item.setQty(itemQty);
+                    // Ensure price is not zero
+                    log.debug("Incoming item: {} rawPrice={}", itemReq.name, itemReq.price);
+                    int itemPrice = 0;
+                    try {
+                        itemPrice = Math.toIntExact(itemReq.price);
+                    } catch (Exception e) {
+                        log.warn("Invalid price: {}", itemReq.price);
+                        itemPrice = 0;
+                    }
+                    item.setPrice(itemPrice);
+                    item.setOrder(order);
+                    order.getItems().add(item);
+                    log.debug("Added item: {} x{} @ {} (lineTotal: {})", itemReq.name, itemQty, itemPrice, item.lineTotal());
                 }
-                item.setPrice(itemPrice);
-                item.setOrder(order);
-                order.getItems().add(item);
-                System.out.println("[OrderService] Added item: " + itemReq.name + " x" + itemQty + " @ " + itemPrice + " (lineTotal: " + item.lineTotal() + ")");
             }
-        }
         
-        // Always recalculate total from items
-        order.recalculateTotal();
+            // Always recalculate total from items
+            order.recalculateTotal();
         
-        System.out.println("[DEBUG] Saving order " + order.getId() + " total=" + order.getTotal() + " items=" + order.getItems());
-        System.out.println("[OrderService] Order " + order.getId() + " total calculated = " + order.getTotal());
-        System.out.println("[OrderService] Order has " + (order.getItems() != null ? order.getItems().size() : 0) + " items");
+            log.debug("Saving order {} total={} items={}", order.getId(), order.getTotal(), order.getItems().size());
         
-        Order saved = orderRepository.save(order);
-        orderEventPublisher.publishOrderUpdate(saved);
+            Order saved = orderRepository.save(order);
+            orderEventPublisher.publishOrderUpdate(saved);
         
-        // Create notification for restaurant
-        try {
-            notificationService.createNotification(saved);
-        } catch (Exception e) {
-            // Log but don't fail order creation if notification fails
-            System.err.println("[OrderService] Failed to create notification: " + e.getMessage());
+            // Restaurant notification is created by NotificationPipeline after commit
+            applicationEventPublisher.publishEvent(OrderChangedEvent.created(saved));
+
+            succeeded = true;
+            return saved;
+        } finally {
+            sample.stop(createTimers.get(succeeded));
         }
-        
-        return saved;
     }
 
     @Transactional
     public Order createOrder(Order order) {
-        if (CollectionUtils.isEmpty(order.getItems())) {
-            throw new IllegalArgumentException("Order must contain at least one item");
-        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean succeeded = false;
+        try {
+            if (CollectionUtils.isEmpty(order.getItems())) {
+                throw new IllegalArgumentException("Order must contain at least one item");
+            }
 
-        if (!StringUtils.hasText(order.getId())) {
-            order.setId(generateOrderId());
-        }
+            if (!StringUtils.hasText(order.getId())) {
+                order.setId(generateOrderId());
+            }
 
-        if (order.getStatusEnum() == null) {
-            order.setStatus(OrderStatus.PENDING);
-        }
+            if (order.getStatusEnum() == null) {
+                order.setStatus(OrderStatus.PENDING);
+            }
+
+            // A new order starts unversioned; a client-supplied version would make Hibernate expect an existing row
+            order.setVersion(null);
 
-        // Always recalculate total from items
-        order.recalculateTotal();
+            // Always recalculate total from items
+            order.recalculateTotal();
         
-        System.out.println("[DEBUG] Saving order " + order.getId() + " total=" + order.getTotal() + " items=" + order.getItems());
-        System.out.println("[OrderService] Order " + order.getId() + " total calculated = " + order.getTotal());
-        System.out.println("[OrderService] Order has " + (order.getItems() != null ? order.getItems().size() : 0) + " items");
+            log.debug("Saving order {} total={} items={}", order.getId(), order.getTotal(), order.getItems().size());
         
-        Order saved = orderRepository.save(order);
-        orderEventPublisher.publishOrderUpdate(saved);
+            Order saved = orderRepository.save(order);
+            orderEventPublisher.publishOrderUpdate(saved);
         
-        // Create notification for restaurant
-        try {
-            notificationService.createNotification(saved);
-        } catch (Exception e) {
-            // Log but don't fail order creation if notification fails
-            System.err.println("[OrderService] Failed to create notification: " + e.getMessage());
+            // Restaurant notification is created by NotificationPipeline after commit
+            applicationEventPublisher.publishEvent(OrderChangedEvent.created(saved));
+
+            succeeded = true;
+            return saved;
+        } finally {
+            sample.stop(createTimers.get(succeeded));
         }
-        
-        return saved;
     }
 
-    @Transactional
     public Order updateStatus(String id, OrderStatus status) {
-        Order order = orderRepository.findById(id)
+        return patch(id, OrderPatch.ofStatus(status))
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + id));
-        order.setStatus(status);
-        Order saved = orderRepository.save(order);
-        orderEventPublisher.publishOrderUpdate(saved);
-        
-        // Create notification for restaurant
+    }
+
+    /**
+     * Apply one PATCH as a single UPDATE of the changed columns, then re-read the order once
+     * for the broadcast. The order is never loaded before the write: a status change reads
+     * only status/version/route columns, checks the lifecycle (re-sending the current status
+     * is a no-op) and guards the UPDATE on the version it read, so a concurrent write that
+     * lands first ends in OrderConflictException. When the client sends a version, the
+     * UPDATE is guarded on that instead. A dispatch route is planned before the transaction
+     * opens, so an A* search never runs while a connection is held.
+     *
+     * @return empty when the order does not exist
+     */
+    public Optional<Order> patch(String id, OrderPatch patch) {
+        List<PositionObject> route = patch.getStatus() == OrderStatus.DELIVERING ? planDispatchRoute(id) : null;
+        return transactionTemplate.execute(tx -> patch(id, patch, route));
+    }
+
+    /**
+     * Flight route for an order about to be dispatched; null when it is already routed,
+     * has no restaurant or does not exist (the transaction re-checks all of these)
+     */
+    private List<PositionObject> planDispatchRoute(String id) {
+        OrderState state = orderRepository.findStateById(id).orElse(null);
+        if (state == null || Boolean.TRUE.equals(state.getRouted()) || !StringUtils.hasText(state.getRestaurantId())) {
+            return null;
+        }
+        return routePlanner.plan(state.getRestaurantId(), state.getAddress());
+    }
+
+    private Optional<Order> patch(String id, OrderPatch patch, List<PositionObject> plannedRoute) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean statusChanged = false;
+        String outcome = OrderTimers.ERROR;
         try {
-            notificationService.createNotification(saved);
-        } catch (Exception e) {
-            // Log but don't fail order creation if notification fails
-            System.err.println("[OrderService] Failed to create notification: " + e.getMessage());
+            Map<String, Object> assignments = new LinkedHashMap<>(patch.getAssignments());
+            Long guardVersion = patch.getVersion();
+
+            OrderStatus status = patch.getStatus();
+            if (status != null) {
+                Optional<OrderState> found = orderRepository.findStateById(id);
+                if (found.isEmpty()) {
+                    outcome = OrderTimers.NOT_FOUND;
+                    return Optional.empty();
+                }
+                OrderState state = found.get();
+                if (guardVersion != null && !guardVersion.equals(state.getVersion())) {
+                    throw conflict(id, "was modified (version " + state.getVersion() + ", expected " + guardVersion + ")", state);
+                }
+                guardVersion = state.getVersion();
+
+                OrderStatus current = state.getStatus();
+                statusChanged = status != current;
+                if (statusChanged && (current == null || !current.canTransitionTo(status))) {
+                    throw conflict(id, "cannot move from " + current + " to " + status, state);
+                }
+                if (statusChanged) {
+                    assignments.put("status", status);
+                    if (status == OrderStatus.DELIVERING && !Boolean.TRUE.equals(state.getRouted())
+                            && StringUtils.hasText(state.getRestaurantId())) {
+                        // Dispatch: the route planned up front (empty when no path avoids the no-fly
+                        // zones); only an order that gained its restaurant meanwhile is planned here
+                        List<PositionObject> route = plannedRoute != null ? plannedRoute
+                                : routePlanner.plan(state.getRestaurantId(), state.getAddress());
+                        assignments.put("routeWaypoints", WaypointCodec.encode(route));
+                    }
+                }
+            }
+
+            if (!assignments.isEmpty()) {
+                assignments.put("updatedAt", Instant.now());
+                int updated = partialUpdateRepository.update(Order.class, id, assignments, true, guardVersion);
+                if (updated == 0) {
+                    OrderState state = orderRepository.findStateById(id).orElse(null);
+                    if (state == null) {
+                        outcome = OrderTimers.NOT_FOUND;
+                        return Optional.empty();
+                    }
+                    throw conflict(id, "was modified concurrently", state);
+                }
+            }
+
+            // The only full read: the broadcast and the response carry the whole order
+            Optional<Order> saved = orderRepository.findById(id);
+            if (saved.isEmpty()) {
+                outcome = OrderTimers.NOT_FOUND;
+                return saved;
+            }
+            if (!assignments.isEmpty()) {
+                orderEventPublisher.publishOrderUpdate(saved.get());
+            }
+            if (statusChanged) {
+                // Restaurant notification is created by NotificationPipeline after commit
+                applicationEventPublisher.publishEvent(OrderChangedEvent.statusChanged(saved.get()));
+            }
+
+            outcome = OrderTimers.SUCCESS;
+            return saved;
+        } finally {
+            sample.stop((statusChanged ? updateStatusTimers : patchTimers).get(outcome));
         }
-        
-        return saved;
+    }
+
+    private static OrderConflictException conflict(String id, String reason, OrderState state) {
+        return new OrderConflictException("Order " + id + " " + reason, id, state.getStatus(), state.getVersion());
     }
 
     @Transactional
     public Order save(Order order) {
-        Order saved = orderRepository.save(order);
-        orderEventPublisher.publishOrderUpdate(saved);
-        return saved;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean succeeded = false;
+        try {
+            Order saved = orderRepository.save(order);
+            orderEventPublisher.publishOrderUpdate(saved);
+            succeeded = true;
+            return saved;
+        } finally {
+            sample.stop(saveTimers.get(succeeded));
+        }
     }
 
     /**
@@ -365,7 +505,7 @@ public class OrderService {
         try {
             return Math.toIntExact(priceFromRequest);
         } catch (Exception e) {
-            System.err.println("[OrderService] INVALID PRICE VALUE: " + priceFromRequest);
+            log.warn("Invalid price value: {}", priceFromRequest);
             return 0;
         }
     }
@@ -374,11 +514,51 @@ public class OrderService {
         try {
             return Math.toIntExact(totalFromRequest);
         } catch (Exception e) {
-            System.err.println("[OrderService] INVALID TOTAL VALUE: " + totalFromRequest);
+            log.warn("Invalid total value: {}", totalFromRequest);
             return 0;
         }
     }
 
+    /**
+     * foodfast.orders.write timers of one operation, one per outcome, so failed writes
+     * (conflicts, validation errors) show up in latency metrics instead of vanishing
+     */
+    private static final class OrderTimers {
+        static final String SUCCESS = "success";
+        static final String ERROR = "error";
+        static final String NOT_FOUND = "not_found";
+
+        private final Timer success;
+        private final Timer error;
+        private final Timer notFound;
+
+        OrderTimers(MeterRegistry meterRegistry, String operation) {
+            this.success = orderTimer(meterRegistry, operation, SUCCESS);
+            this.error = orderTimer(meterRegistry, operation, ERROR);
+            this.notFound = orderTimer(meterRegistry, operation, NOT_FOUND);
+        }
+
+        Timer get(boolean succeeded) {
+            return succeeded ? success : error;
+        }
+
+        Timer get(String outcome) {
+            return switch (outcome) {
+                case SUCCESS -> success;
+                case NOT_FOUND -> notFound;
+                default -> error;
+            };
+        }
+
+        private static Timer orderTimer(MeterRegistry meterRegistry, String operation, String outcome) {
+            return Timer.builder("foodfast.orders.write")
+                    .description("Order write latency inside OrderService (excluding commit)")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
     private String generateOrderId() {
         return "ORDER-" + UUID.randomUUID().toString().replaceAll("-", "").substring(0, 12).toUpperCase();
     }
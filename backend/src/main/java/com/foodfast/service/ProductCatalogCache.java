@@ -0,0 +1,221 @@
+package com.foodfast.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodfast.entity.Product;
+import com.foodfast.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Product Catalog Cache
+ * Keeps each restaurant's menu as an immutable, pre-encoded snapshot (plain JSON and gzip)
+ * so menu reads skip both the database and Jackson.
+ * A snapshot is rebuilt only after a product of that restaurant changes; concurrent
+ * readers of a missing snapshot share a single build. Only restaurants that have products
+ * are kept, so arbitrary ?restaurant= values cannot grow the cache.
+ */
+@Service
+public class ProductCatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+    // Key used for the unfiltered product list (GET /api/products without ?restaurant)
+    private static final String ALL_RESTAURANTS = "*";
+
+    // Tiny menus are not worth a Content-Encoding round trip
+    private static final int MIN_GZIP_SIZE = 512;
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<String, CompletableFuture<MenuSnapshot>> snapshots = new ConcurrentHashMap<>();
+
+    public ProductCatalogCache(
+            ProductRepository productRepository,
+            ObjectMapper objectMapper,
+            @Value("${foodfast.catalog.cache.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Build every restaurant's snapshot before the first request arrives
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Disabled, menus are built per request");
+            return;
+        }
+        getMenu(null);
+        productRepository.findAll().stream()
+                .map(Product::getRestaurant)
+                .filter(restaurant -> restaurant != null && !restaurant.trim().isEmpty())
+                .map(restaurant -> restaurant.toLowerCase(Locale.ROOT))
+                .distinct()
+                .forEach(this::getMenu);
+        log.info("Warmed {} menu snapshots", snapshots.size());
+    }
+
+    /**
+     * Get the menu for a restaurant, or all products when restaurant is blank
+     */
+    public MenuSnapshot getMenu(String restaurant) {
+        String key = keyFor(restaurant);
+        if (!enabled) {
+            return build(key, restaurant);
+        }
+        CompletableFuture<MenuSnapshot> existing = snapshots.get(key);
+        if (existing == null) {
+            CompletableFuture<MenuSnapshot> build = new CompletableFuture<>();
+            existing = snapshots.putIfAbsent(key, build);
+            if (existing == null) {
+                try {
+                    MenuSnapshot snapshot = build(key, restaurant);
+                    build.complete(snapshot);
+                    if (snapshot.getProductCount() == 0 && !ALL_RESTAURANTS.equals(key)) {
+                        // Unknown restaurant: answer the waiters but keep nothing
+                        snapshots.remove(key, build);
+                    }
+                    return snapshot;
+                } catch (RuntimeException e) {
+                    snapshots.remove(key, build);
+                    build.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        return await(existing);
+    }
+
+    /**
+     * Drop the snapshot of a restaurant (and the unfiltered list that contains it).
+     * A build already in flight still completes for its waiters but is no longer cached.
+     */
+    public void invalidate(String restaurant) {
+        if (restaurant != null && !restaurant.trim().isEmpty()) {
+            snapshots.remove(keyFor(restaurant));
+        }
+        snapshots.remove(ALL_RESTAURANTS);
+    }
+
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    private MenuSnapshot await(CompletableFuture<MenuSnapshot> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for menu snapshot", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Failed to build menu snapshot", cause);
+        }
+    }
+
+    private MenuSnapshot build(String key, String restaurant) {
+        List<Product> products = ALL_RESTAURANTS.equals(key)
+                ? productRepository.findAll(Sort.by(Sort.Direction.ASC, "name"))
+                : productRepository.findByRestaurantIgnoreCase(restaurant);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(products);
+            byte[] gzip = json.length >= MIN_GZIP_SIZE ? gzip(json) : null;
+            String hash = DigestUtils.md5DigestAsHex(json);
+            return new MenuSnapshot(json, gzip, hash, products.size());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product catalog: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compress product catalog: " + e.getMessage(), e);
+        }
+        return out.toByteArray();
+    }
+
+    private String keyFor(String restaurant) {
+        if (restaurant == null || restaurant.trim().isEmpty()) {
+            return ALL_RESTAURANTS;
+        }
+        return restaurant.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable pre-encoded menu: identity JSON plus an optional gzip variant.
+     * Buffers are read-only and are duplicated per write, so they are safe to share.
+     */
+    public static class MenuSnapshot {
+        private final ByteBuffer json;
+        private final ByteBuffer gzip;
+        private final String hash;
+        private final int productCount;
+
+        public MenuSnapshot(byte[] json, byte[] gzip, String hash, int productCount) {
+            this.json = ByteBuffer.wrap(json).asReadOnlyBuffer();
+            this.gzip = gzip != null ? ByteBuffer.wrap(gzip).asReadOnlyBuffer() : null;
+            this.hash = hash;
+            this.productCount = productCount;
+        }
+
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+
+        /**
+         * Strong ETag of the chosen representation (each encoding gets its own tag)
+         */
+        public String getEtag(boolean gzipped) {
+            return gzipped ? "\"" + hash + "-gz\"" : "\"" + hash + "\"";
+        }
+
+        public int getContentLength(boolean gzipped) {
+            return gzipped ? gzip.remaining() : json.remaining();
+        }
+
+        public int getProductCount() {
+            return productCount;
+        }
+
+        /**
+         * Write the chosen representation straight from the cached buffer
+         */
+        public void writeTo(OutputStream out, boolean gzipped) throws IOException {
+            ByteBuffer source = (gzipped ? gzip : json).duplicate();
+            WritableByteChannel channel = Channels.newChannel(out);
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.foodfast.service;
+
+import com.foodfast.entity.Product;
+import com.foodfast.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Product Search Index
+ * In-memory inverted index over product name, category and description.
+ * Text is folded to ASCII (so "banh" matches "Bánh") and every query token may match
+ * a term exactly, as a prefix, or within one edit (symmetric-delete lookup).
+ * Kept current by ProductController mutations; rebuilt from the database on startup.
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    // Field weights: a hit in the name outranks a hit in the category or description
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Match-kind multipliers
+    private static final int EXACT_BOOST = 4;
+    private static final int PREFIX_BOOST = 2;
+    private static final int FUZZY_BOOST = 1;
+
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_PREFIX_EXPANSION = 256;
+    public static final int MAX_LIMIT = 100;
+
+    private final ProductRepository productRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (productId -> best field weight of that term in the product)
+    private final TreeMap<String, Map<String, Integer>> postings = new TreeMap<>();
+
+    // single-character deletion of a term -> terms producing it
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    private final Map<String, IndexedProduct> documents = new HashMap<>();
+
+    // restaurant key -> ids of its products, so a restaurant filter limits scoring up front
+    private final Map<String, Set<String>> restaurantProducts = new HashMap<>();
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Product> products = productRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            deletions.clear();
+            documents.clear();
+            restaurantProducts.clear();
+            for (Product product : products) {
+                addLocked(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} products", products.size());
+    }
+
+    /**
+     * Add or replace a product in the index
+     */
+    public void upsert(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.getId());
+            addLocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search products; every query token must match. Results are ordered by score,
+     * then by shorter name (closer match), then alphabetically.
+     */
+    public List<Product> search(String query, String restaurant, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String restaurantKey = restaurant != null && !restaurant.trim().isEmpty()
+                ? restaurant.trim().toLowerCase(Locale.ROOT)
+                : null;
+
+        lock.readLock().lock();
+        try {
+            Set<String> scope = null;
+            if (restaurantKey != null) {
+                scope = restaurantProducts.get(restaurantKey);
+                if (scope == null) {
+                    return Collections.emptyList();
+                }
+            }
+
+            // Longest (most selective) token first; every later token only scores the products
+            // that matched all tokens so far
+            List<String> ordered = new ArrayList<>(tokens);
+            ordered.sort(Comparator.comparingInt(String::length).reversed());
+            Map<String, Integer> scores = null;
+            for (String token : ordered) {
+                Map<String, Integer> tokenScores = scoreToken(token, scores != null ? scores.keySet() : scope);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    for (Map.Entry<String, Integer> entry : tokenScores.entrySet()) {
+                        entry.setValue(entry.getValue() + scores.get(entry.getKey()));
+                    }
+                    scores = tokenScores;
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            Comparator<ScoredProduct> ranking = Comparator
+                    .comparingInt((ScoredProduct s) -> s.score).reversed()
+                    .thenComparingInt(s -> s.document.nameLength)
+                    .thenComparing(s -> s.document.sortName);
+            // Min-heap of the current top results (worst result on top)
+            PriorityQueue<ScoredProduct> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+            for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                IndexedProduct document = documents.get(entry.getKey());
+                if (document == null) {
+                    continue;
+                }
+                if (top.size() == limit && entry.getValue() < top.peek().score) {
+                    continue; // Cannot displace the current worst result
+                }
+                top.offer(new ScoredProduct(document, entry.getValue()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<ScoredProduct> ranked = new ArrayList<>(top);
+            ranked.sort(ranking);
+            List<Product> results = new ArrayList<>(ranked.size());
+            for (ScoredProduct scored : ranked) {
+                results.add(scored.document.product);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fold text to lowercase ASCII tokens ("Bánh Đậu" -> [banh, dau])
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String folded = text.toLowerCase(Locale.ROOT).replace('đ', 'd');
+        folded = Normalizer.normalize(folded, Normalizer.Form.NFD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("");
+        folded = NON_ALPHANUMERIC.matcher(folded).replaceAll(" ").trim();
+        if (folded.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : folded.split(" ")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Score one token against every product, or only against the products in scope when given
+     */
+    private Map<String, Integer> scoreToken(String token, Set<String> scope) {
+        Map<String, Integer> scores = new HashMap<>();
+
+        Map<String, Integer> exact = postings.get(token);
+        if (exact != null) {
+            accumulate(scores, exact, EXACT_BOOST, scope);
+        }
+
+        int expanded = 0;
+        for (Map.Entry<String, Map<String, Integer>> entry
+                : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+            accumulate(scores, entry.getValue(), PREFIX_BOOST, scope);
+            if (++expanded >= MAX_PREFIX_EXPANSION) {
+                break;
+            }
+        }
+
+        if (token.length() >= MIN_FUZZY_LENGTH) {
+            for (String term : fuzzyCandidates(token)) {
+                Map<String, Integer> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    accumulate(scores, termPostings, FUZZY_BOOST, scope);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<String, Integer> scores, Map<String, Integer> termPostings, int boost,
+                            Set<String> scope) {
+        if (scope != null && scope.size() < termPostings.size()) {
+            // Walk the smaller side: the restaurant's products, probing the posting list
+            for (String productId : scope) {
+                Integer weight = termPostings.get(productId);
+                if (weight != null) {
+                    scores.merge(productId, weight * boost, Math::max);
+                }
+            }
+            return;
+        }
+        for (Map.Entry<String, Integer> posting : termPostings.entrySet()) {
+            if (scope != null && !scope.contains(posting.getKey())) {
+                continue;
+            }
+            int score = posting.getValue() * boost;
+            scores.merge(posting.getKey(), score, Math::max);
+        }
+    }
+
+    /**
+     * Terms within one insertion, deletion, substitution or adjacent swap of the token
+     */
+    private Set<String> fuzzyCandidates(String token) {
+        Set<String> candidates = new HashSet<>();
+        Set<String> direct = deletions.get(token);
+        if (direct != null) {
+            candidates.addAll(direct);
+        }
+        for (String variant : deletionsOf(token)) {
+            if (postings.containsKey(variant)) {
+                candidates.add(variant);
+            }
+            Set<String> shared = deletions.get(variant);
+            if (shared != null) {
+                candidates.addAll(shared);
+            }
+        }
+        candidates.remove(token);
+        return candidates;
+    }
+
+    private void addLocked(Product product) {
+        Map<String, Integer> terms = new HashMap<>();
+        collectTerms(terms, product.getName(), NAME_WEIGHT);
+        collectTerms(terms, product.getCategory(), CATEGORY_WEIGHT);
+        collectTerms(terms, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+            String term = entry.getKey();
+            Map<String, Integer> termPostings = postings.get(term);
+            if (termPostings == null) {
+                termPostings = new HashMap<>();
+                postings.put(term, termPostings);
+                if (term.length() >= MIN_FUZZY_LENGTH - 1) {
+                    for (String variant : deletionsOf(term)) {
+                        deletions.computeIfAbsent(variant, k -> new HashSet<>()).add(term);
+                    }
+                }
+            }
+            termPostings.put(product.getId(), entry.getValue());
+        }
+        IndexedProduct document = new IndexedProduct(product, terms.keySet());
+        documents.put(product.getId(), document);
+        if (document.restaurantKey != null) {
+            restaurantProducts.computeIfAbsent(document.restaurantKey, k -> new HashSet<>()).add(product.getId());
+        }
+    }
+
+    private void removeLocked(String productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        if (previous.restaurantKey != null) {
+            Set<String> products = restaurantProducts.get(previous.restaurantKey);
+            if (products != null) {
+                products.remove(productId);
+                if (products.isEmpty()) {
+                    restaurantProducts.remove(previous.restaurantKey);
+                }
+            }
+        }
+        for (String term : previous.terms) {
+            Map<String, Integer> termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+            termPostings.remove(productId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+                for (String variant : deletionsOf(term)) {
+                    Set<String> owners = deletions.get(variant);
+                    if (owners != null) {
+                        owners.remove(term);
+                        if (owners.isEmpty()) {
+                            deletions.remove(variant);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void collectTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    private static Set<String> deletionsOf(String term) {
+        Set<String> variants = new LinkedHashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    private static class IndexedProduct {
+        final Product product;
+        final Set<String> terms;
+        final String restaurantKey;
+        final String sortName;
+        final int nameLength;
+
+        IndexedProduct(Product product, Set<String> terms) {
+            this.product = product;
+            this.terms = terms;
+            this.restaurantKey = product.getRestaurant() != null
+                    ? product.getRestaurant().trim().toLowerCase(Locale.ROOT)
+                    : null;
+            this.sortName = product.getName() != null ? product.getName().toLowerCase(Locale.ROOT) : "";
+            this.nameLength = sortName.length();
+        }
+    }
+
+    private static class ScoredProduct {
+        final IndexedProduct document;
+        final int score;
+
+        ScoredProduct(IndexedProduct document, int score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+}
@@ -1,30 +1,34 @@
 package com.foodfast.service;
 
-import com.foodfast.entity.CartItem;
+import com.foodfast.dto.CartDiff;
+import com.foodfast.dto.DroneTelemetry;
+import com.foodfast.entity.Drone;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class RealtimeService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final DroneTelemetryService droneTelemetryService;
 
-    public RealtimeService(SimpMessagingTemplate messagingTemplate) {
+    public RealtimeService(SimpMessagingTemplate messagingTemplate, DroneTelemetryService droneTelemetryService) {
         this.messagingTemplate = messagingTemplate;
+        this.droneTelemetryService = droneTelemetryService;
     }
 
     public void sendOrderUpdate(Object order) {
         messagingTemplate.convertAndSend("/topic/orders", order);
     }
 
-    public void sendDroneUpdate(Object drone) {
-        messagingTemplate.convertAndSend("/topic/drone", drone);
+    // Reported as telemetry: streamed with the next /topic/drone frame (conflated)
+    public void sendDroneUpdate(Drone drone) {
+        droneTelemetryService.report(DroneTelemetry.from(drone));
     }
 
-    public void sendCartUpdate(List<CartItem> cartItems) {
-        messagingTemplate.convertAndSend("/topic/cart", cartItems);
+    // Delivered only to the owner's sessions (clients subscribe to /user/queue/cart)
+    public void sendCartDiff(String ownerId, CartDiff diff) {
+        messagingTemplate.convertAndSendToUser(ownerId, "/queue/cart", diff);
     }
 }
 
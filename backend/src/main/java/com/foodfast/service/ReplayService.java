@@ -0,0 +1,321 @@
+package com.foodfast.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodfast.dto.DroneTelemetry;
+import com.foodfast.service.TelemetryHistoryStore.Resolution;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Replay Service
+ * Plays back recorded drone telemetry for a time window (one drone or a restaurant's
+ * fleet) at a playback speed, either as an NDJSON response stream or as frames on
+ * /topic/replay/{replayId}. Records are read sequentially from the history segments as
+ * they are played, so the window is never held in memory. Fixes sharing a timestamp are
+ * sent as one frame; quiet gaps are shortened to max-gap-ms. Both kinds run on the replay
+ * threads, so together they are capped at max-sessions.
+ */
+@Service
+public class ReplayService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayService.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    public static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    private final TelemetryHistoryStore telemetryHistoryStore;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final double defaultSpeed;
+    private final double maxSpeed;
+    private final long maxGapMillis;
+    private final long maxWindowMillis;
+    private final int maxSessions;
+    private final long streamTimeoutMillis;
+
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    public ReplayService(
+            TelemetryHistoryStore telemetryHistoryStore,
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${foodfast.replay.default-speed:10}") double defaultSpeed,
+            @Value("${foodfast.replay.max-speed:1000}") double maxSpeed,
+            @Value("${foodfast.replay.max-gap-ms:2000}") long maxGapMillis,
+            @Value("${foodfast.replay.max-window-hours:24}") long maxWindowHours,
+            @Value("${foodfast.replay.max-sessions:4}") int maxSessions,
+            @Value("${foodfast.replay.stream-timeout-minutes:30}") long streamTimeoutMinutes) {
+        this.telemetryHistoryStore = telemetryHistoryStore;
+        this.messagingTemplate = messagingTemplate;
+        this.defaultSpeed = defaultSpeed;
+        this.maxSpeed = maxSpeed;
+        this.maxGapMillis = maxGapMillis;
+        this.maxWindowMillis = TimeUnit.HOURS.toMillis(maxWindowHours);
+        this.maxSessions = Math.max(1, maxSessions);
+        this.streamTimeoutMillis = TimeUnit.MINUTES.toMillis(streamTimeoutMinutes);
+
+        AtomicInteger threads = new AtomicInteger();
+        // No queue: a replay either gets a thread now or is rejected
+        this.executor = new ThreadPoolExecutor(0, this.maxSessions, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "replay-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sessions.values().forEach(session -> session.cancelled = true);
+        executor.shutdownNow();
+    }
+
+    /**
+     * What to replay: exactly one of droneId / restaurantId, a window and a speed
+     * (1 = real time, 0 = as fast as possible)
+     */
+    public static class ReplayQuery {
+        public String droneId;
+        public String restaurantId;
+        public Long from;
+        public Long to;
+        public Double speed;
+        public String resolution;
+    }
+
+    /**
+     * Check the query and fill in defaults; throws IllegalArgumentException when invalid
+     */
+    public ReplayQuery validate(ReplayQuery query) {
+        if (StringUtils.hasText(query.droneId) == StringUtils.hasText(query.restaurantId)) {
+            throw new IllegalArgumentException("Exactly one of droneId or restaurantId is required");
+        }
+        long to = query.to != null ? query.to : System.currentTimeMillis();
+        long from = query.from != null ? query.from : to - TimeUnit.HOURS.toMillis(1);
+        if (from < 0 || to < 0) {
+            throw new IllegalArgumentException("from and to must be epoch milliseconds");
+        }
+        if (from > to) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (Math.subtractExact(to, from) > maxWindowMillis) {
+            throw new IllegalArgumentException("Window is longer than " + TimeUnit.MILLISECONDS.toHours(maxWindowMillis) + " hours");
+        }
+        double speed = query.speed != null ? query.speed : defaultSpeed;
+        if (speed < 0 || speed > maxSpeed) {
+            throw new IllegalArgumentException("speed must be between 0 and " + maxSpeed);
+        }
+        if (query.resolution != null) {
+            Resolution.fromLabel(query.resolution);
+        }
+        query.from = from;
+        query.to = to;
+        query.speed = speed;
+        return query;
+    }
+
+    /**
+     * Stream the replay as NDJSON (one telemetry record per line) from a replay thread,
+     * paced by the playback speed and ended after stream-timeout-minutes; throws
+     * IllegalStateException when max-sessions replays are already running
+     */
+    public ResponseBodyEmitter startStream(ReplayQuery query) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(streamTimeoutMillis);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        emitter.onTimeout(() -> cancelled.set(true));
+        emitter.onError(e -> cancelled.set(true));
+        emitter.onCompletion(() -> cancelled.set(true));
+        try {
+            executor.execute(() -> {
+                try {
+                    play(query, cancelled::get, (timestamp, records) -> {
+                        try {
+                            StringBuilder lines = new StringBuilder();
+                            for (DroneTelemetry record : records) {
+                                lines.append(objectMapper.writeValueAsString(record)).append('\n');
+                            }
+                            emitter.send(lines.toString(), NDJSON);
+                            return true;
+                        } catch (IOException | IllegalStateException e) {
+                            // Client went away or the stream timed out
+                            return false;
+                        }
+                    });
+                    emitter.complete();
+                } catch (Exception e) {
+                    log.warn("Replay stream failed", e);
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Too many replays running (max " + maxSessions + ")");
+        }
+        return emitter;
+    }
+
+    /**
+     * Start a replay on /topic/replay/{replayId}; throws IllegalStateException when
+     * max-sessions replays are already running
+     */
+    public Map<String, Object> startSession(ReplayQuery query) {
+        String replayId = UUID.randomUUID().toString();
+        Session session = new Session(replayId, query);
+        String destination = "/topic/replay/" + replayId;
+        sessions.put(replayId, session);
+        try {
+            executor.execute(() -> {
+                try {
+                    play(query, () -> session.cancelled, (timestamp, records) -> {
+                        Map<String, Object> frame = new HashMap<>();
+                        frame.put("type", "REPLAY_FRAME");
+                        frame.put("replayId", replayId);
+                        frame.put("timestamp", timestamp);
+                        frame.put("drones", records);
+                        messagingTemplate.convertAndSend(destination, frame);
+                        session.frames++;
+                        session.position = timestamp;
+                        return true;
+                    });
+                    Map<String, Object> end = new HashMap<>();
+                    end.put("type", session.cancelled ? "REPLAY_CANCELLED" : "REPLAY_END");
+                    end.put("replayId", replayId);
+                    end.put("frames", session.frames);
+                    messagingTemplate.convertAndSend(destination, end);
+                } catch (Exception e) {
+                    log.warn("Replay {} failed", replayId, e);
+                } finally {
+                    sessions.remove(replayId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            sessions.remove(replayId);
+            throw new IllegalStateException("Too many replays running (max " + maxSessions + ")");
+        }
+        return session.describe(destination);
+    }
+
+    public boolean stopSession(String replayId) {
+        Session session = sessions.get(replayId);
+        if (session == null) {
+            return false;
+        }
+        session.cancelled = true;
+        return true;
+    }
+
+    public List<Map<String, Object>> getSessions() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Session session : sessions.values()) {
+            result.add(session.describe("/topic/replay/" + session.replayId));
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface FrameSink {
+        boolean accept(long timestamp, List<DroneTelemetry> records);
+    }
+
+    private void play(ReplayQuery query, BooleanSupplier cancelled, FrameSink sink) {
+        Resolution resolution = query.resolution != null
+                ? Resolution.fromLabel(query.resolution)
+                : telemetryHistoryStore.chooseResolution(query.from, query.to, Integer.MAX_VALUE);
+        double speed = query.speed;
+
+        List<DroneTelemetry> frame = new ArrayList<>();
+        long[] frameTime = {Long.MIN_VALUE};
+        boolean[] stopped = {false};
+
+        telemetryHistoryStore.scan(resolution, query.from, query.to, query.droneId, query.restaurantId, record -> {
+            if (frameTime[0] != Long.MIN_VALUE && record.updatedAt != frameTime[0]) {
+                if (cancelled.getAsBoolean() || !sink.accept(frameTime[0], new ArrayList<>(frame))) {
+                    stopped[0] = true;
+                    return false;
+                }
+                frame.clear();
+                if (!pause(record.updatedAt - frameTime[0], speed)) {
+                    stopped[0] = true;
+                    return false;
+                }
+            }
+            frameTime[0] = record.updatedAt;
+            frame.add(record);
+            return true;
+        });
+        if (!stopped[0] && !frame.isEmpty() && !cancelled.getAsBoolean()) {
+            sink.accept(frameTime[0], frame);
+        }
+    }
+
+    /**
+     * Sleep for a recorded gap scaled by the playback speed; false when interrupted
+     */
+    private boolean pause(long recordedGapMillis, double speed) {
+        if (speed <= 0) {
+            return true;
+        }
+        long millis = Math.min(maxGapMillis, Math.round(recordedGapMillis / speed));
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class Session {
+        final String replayId;
+        final ReplayQuery query;
+        final long startedAt = System.currentTimeMillis();
+        volatile boolean cancelled;
+        volatile long frames;
+        volatile long position;
+
+        Session(String replayId, ReplayQuery query) {
+            this.replayId = replayId;
+            this.query = query;
+        }
+
+        Map<String, Object> describe(String destination) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("replayId", replayId);
+            info.put("destination", destination);
+            info.put("droneId", query.droneId);
+            info.put("restaurantId", query.restaurantId);
+            info.put("from", query.from);
+            info.put("to", query.to);
+            info.put("speed", query.speed);
+            info.put("startedAt", startedAt);
+            info.put("frames", frames);
+            info.put("position", position > 0 ? position : null);
+            return info;
+        }
+    }
+}
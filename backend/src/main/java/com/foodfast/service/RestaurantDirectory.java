@@ -0,0 +1,149 @@
+package com.foodfast.service;
+
+import com.foodfast.entity.Restaurant;
+import com.foodfast.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Restaurant Directory
+ * Read-mostly view of all restaurants held in an immutable snapshot with by-id,
+ * by-owner and by-category indexes. Writers build a new snapshot and swap it in
+ * atomically, so lookups never take a lock or touch the database.
+ */
+@Service
+public class RestaurantDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantDirectory.class);
+
+    private final RestaurantRepository restaurantRepository;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    public RestaurantDirectory(RestaurantRepository restaurantRepository) {
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<Restaurant> restaurants = restaurantRepository.findAll();
+        current.set(new Snapshot(restaurants));
+        log.info("Loaded {} restaurants", restaurants.size());
+    }
+
+    public List<Restaurant> getActive() {
+        return snapshot().active;
+    }
+
+    public List<Restaurant> getAll() {
+        return snapshot().all;
+    }
+
+    public Optional<Restaurant> findById(String id) {
+        return id != null ? Optional.ofNullable(snapshot().byId.get(id)) : Optional.empty();
+    }
+
+    public Optional<Restaurant> findByOwnerId(String ownerId) {
+        return ownerId != null ? Optional.ofNullable(snapshot().byOwner.get(ownerId)) : Optional.empty();
+    }
+
+    public List<Restaurant> findByCategory(String category) {
+        if (category == null) {
+            return Collections.emptyList();
+        }
+        return snapshot().byCategory.getOrDefault(category.toLowerCase(Locale.ROOT), Collections.emptyList());
+    }
+
+    /**
+     * Publish a saved restaurant (insert or replace) as a new snapshot
+     */
+    public void upsert(Restaurant restaurant) {
+        snapshot();
+        current.updateAndGet(previous -> {
+            Map<String, Restaurant> byId = new LinkedHashMap<>(previous.byId);
+            byId.put(restaurant.getId(), restaurant);
+            return new Snapshot(new ArrayList<>(byId.values()));
+        });
+    }
+
+    public void remove(String id) {
+        snapshot();
+        current.updateAndGet(previous -> {
+            if (!previous.byId.containsKey(id)) {
+                return previous;
+            }
+            Map<String, Restaurant> byId = new LinkedHashMap<>(previous.byId);
+            byId.remove(id);
+            return new Snapshot(new ArrayList<>(byId.values()));
+        });
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            // Request arrived before ApplicationReadyEvent; load once and publish
+            loadLock.lock();
+            try {
+                snapshot = current.get();
+                if (snapshot == null) {
+                    snapshot = new Snapshot(restaurantRepository.findAll());
+                    current.compareAndSet(null, snapshot);
+                    snapshot = current.get();
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    private static class Snapshot {
+        final List<Restaurant> all;
+        final List<Restaurant> active;
+        final Map<String, Restaurant> byId;
+        final Map<String, Restaurant> byOwner;
+        final Map<String, List<Restaurant>> byCategory;
+
+        Snapshot(List<Restaurant> restaurants) {
+            Map<String, Restaurant> ids = new LinkedHashMap<>();
+            Map<String, Restaurant> owners = new HashMap<>();
+            Map<String, List<Restaurant>> categories = new HashMap<>();
+            List<Restaurant> activeRestaurants = new ArrayList<>();
+
+            for (Restaurant restaurant : restaurants) {
+                ids.put(restaurant.getId(), restaurant);
+                if (restaurant.getOwnerId() != null) {
+                    owners.putIfAbsent(restaurant.getOwnerId(), restaurant);
+                }
+                if (restaurant.getCategory() != null) {
+                    categories.computeIfAbsent(restaurant.getCategory().toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+                            .add(restaurant);
+                }
+                if (Boolean.TRUE.equals(restaurant.getIsActive())) {
+                    activeRestaurants.add(restaurant);
+                }
+            }
+            categories.replaceAll((category, list) -> Collections.unmodifiableList(list));
+
+            this.all = Collections.unmodifiableList(new ArrayList<>(ids.values()));
+            this.active = Collections.unmodifiableList(activeRestaurants);
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byOwner = Collections.unmodifiableMap(owners);
+            this.byCategory = Collections.unmodifiableMap(categories);
+        }
+    }
+}
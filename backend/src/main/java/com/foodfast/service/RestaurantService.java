@@ -11,29 +11,41 @@ import java.util.Optional;
 public class RestaurantService {
 
     private final RestaurantRepository restaurantRepository;
+    private final RestaurantDirectory restaurantDirectory;
 
-    public RestaurantService(RestaurantRepository restaurantRepository) {
+    public RestaurantService(RestaurantRepository restaurantRepository, RestaurantDirectory restaurantDirectory) {
         this.restaurantRepository = restaurantRepository;
+        this.restaurantDirectory = restaurantDirectory;
     }
 
+    // Reads are served from the in-memory directory snapshot
+
     public List<Restaurant> getAllActiveRestaurants() {
-        return restaurantRepository.findByIsActiveTrue();
+        return restaurantDirectory.getActive();
     }
 
     public Optional<Restaurant> findById(String id) {
-        return restaurantRepository.findById(id);
+        return restaurantDirectory.findById(id);
     }
 
     public Optional<Restaurant> findByOwnerId(String ownerId) {
-        return restaurantRepository.findByOwnerId(ownerId);
+        return restaurantDirectory.findByOwnerId(ownerId);
     }
 
     public List<Restaurant> findByCategory(String category) {
-        return restaurantRepository.findByCategoryIgnoreCase(category);
+        return restaurantDirectory.findByCategory(category);
     }
 
     public List<Restaurant> getAll() {
-        return restaurantRepository.findAll();
+        return restaurantDirectory.getAll();
     }
-}
 
+    /**
+     * Persist a restaurant change and publish it to the directory
+     */
+    public Restaurant save(Restaurant restaurant) {
+        Restaurant saved = restaurantRepository.save(restaurant);
+        restaurantDirectory.upsert(saved);
+        return saved;
+    }
+}
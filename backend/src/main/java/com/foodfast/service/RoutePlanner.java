@@ -0,0 +1,458 @@
+package com.foodfast.service;
+
+import com.foodfast.entity.Drone.PositionObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Route Planner
+ * Plans drone routes with A* over a grid laid across the service area (cell-meters per
+ * cell, 8-connected), avoiding circular no-fly zones. The cell path is then shortened to
+ * the few turning points that keep every leg clear of the zones. Routes are cached per
+ * (restaurant, destination cell) in a bounded LRU, so repeat deliveries to the same
+ * neighbourhood skip the search.
+ */
+@Service
+public class RoutePlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutePlanner.class);
+
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+    private static final double SQRT2 = Math.sqrt(2.0);
+    private static final int[] DR = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] DC = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    private final GeoLocator geoLocator;
+    private final MeterRegistry meterRegistry;
+
+    private final double minLat;
+    private final double minLng;
+    private final double latStep;
+    private final double lngStep;
+    private final int rows;
+    private final int cols;
+    private final BitSet blocked;
+    private final int noFlyZones;
+
+    private final int cacheSize;
+    private final ReentrantLock cacheLock = new ReentrantLock();
+    private final ReentrantLock benchmarkLock = new ReentrantLock();
+    private final LinkedHashMap<String, List<PositionObject>> cache;
+
+    private final Timer planTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter unreachable;
+
+    public RoutePlanner(
+            GeoLocator geoLocator,
+            MeterRegistry meterRegistry,
+            @Value("${foodfast.routing.cell-meters:100}") double cellMeters,
+            @Value("${foodfast.routing.no-fly-zones:}") String noFlyZones,
+            @Value("${foodfast.routing.cache-size:10000}") int cacheSize) {
+        this.geoLocator = geoLocator;
+        this.meterRegistry = meterRegistry;
+
+        this.minLat = geoLocator.getMinLat();
+        this.minLng = geoLocator.getMinLng();
+        double midLat = (geoLocator.getMinLat() + geoLocator.getMaxLat()) / 2;
+        this.latStep = cellMeters / METERS_PER_DEGREE_LAT;
+        this.lngStep = cellMeters / (METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(midLat)));
+        this.rows = Math.max(1, (int) Math.ceil((geoLocator.getMaxLat() - minLat) / latStep));
+        this.cols = Math.max(1, (int) Math.ceil((geoLocator.getMaxLng() - minLng) / lngStep));
+        this.blocked = new BitSet(rows * cols);
+        this.noFlyZones = blockZones(noFlyZones);
+
+        this.cacheSize = Math.max(1, cacheSize);
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<PositionObject>> eldest) {
+                return size() > RoutePlanner.this.cacheSize;
+            }
+        };
+
+        this.planTimer = Timer.builder("foodfast.routing.plan")
+                .description("Route searches (cache misses only)")
+                .register(meterRegistry);
+        this.cacheHits = Counter.builder("foodfast.routing.cache")
+                .description("Route cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("foodfast.routing.cache")
+                .description("Route cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.unreachable = Counter.builder("foodfast.routing.unreachable")
+                .description("Routes with no path around the no-fly zones")
+                .register(meterRegistry);
+
+        log.info("Grid {}x{} cells of {} m, {} no-fly zones, {} blocked cells", rows, cols, cellMeters,
+                this.noFlyZones, blocked.cardinality());
+    }
+
+    /**
+     * Route from a restaurant to a delivery address; empty when no route exists
+     */
+    public List<PositionObject> plan(String restaurantId, String address) {
+        return plan(restaurantId, geoLocator.locateRestaurant(restaurantId), geoLocator.locateAddress(address));
+    }
+
+    /**
+     * Route from a restaurant's pad to a destination: start point, turning points, destination.
+     * Empty when the destination cannot be reached without crossing a no-fly zone.
+     */
+    public List<PositionObject> plan(String restaurantId, PositionObject from, PositionObject to) {
+        int goal = cellOf(to);
+        String key = restaurantId + "|" + goal;
+
+        List<PositionObject> cached;
+        cacheLock.lock();
+        try {
+            cached = cache.get(key);
+        } finally {
+            cacheLock.unlock();
+        }
+        if (cached != null) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            cached = search(cellOf(from), goal);
+            sample.stop(planTimer);
+            if (cached == null) {
+                unreachable.increment();
+                // Remember unreachable pairs too, so they are not searched again
+                cached = Collections.emptyList();
+            }
+            cacheLock.lock();
+            try {
+                cache.put(key, cached);
+            } finally {
+                cacheLock.unlock();
+            }
+        }
+        return withEndpoints(cached, from, to);
+    }
+
+    /**
+     * Plan routes between random open cells of the grid, bypassing the cache; one run at a
+     * time (throws IllegalStateException while another is running)
+     */
+    public Map<String, Object> benchmark(int routes, long seed) {
+        if (!benchmarkLock.tryLock()) {
+            throw new IllegalStateException("A routing benchmark is already running");
+        }
+        try {
+            return runBenchmark(routes, seed);
+        } finally {
+            benchmarkLock.unlock();
+        }
+    }
+
+    private Map<String, Object> runBenchmark(int routes, long seed) {
+        Random random = new Random(seed);
+        int found = 0;
+        long waypoints = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < routes; i++) {
+            List<PositionObject> route = search(randomOpenCell(random), randomOpenCell(random));
+            if (route != null) {
+                found++;
+                waypoints += route.size();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("routes", routes);
+        result.put("found", found);
+        result.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        result.put("routesPerSecond", elapsedNanos > 0 ? Math.round(routes * 1e9 / elapsedNanos) : null);
+        result.put("averageWaypoints", found > 0 ? (double) waypoints / found : 0.0);
+        result.put("gridRows", rows);
+        result.put("gridCols", cols);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        int cached;
+        cacheLock.lock();
+        try {
+            cached = cache.size();
+        } finally {
+            cacheLock.unlock();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("gridRows", rows);
+        stats.put("gridCols", cols);
+        stats.put("noFlyZones", noFlyZones);
+        stats.put("blockedCells", blocked.cardinality());
+        stats.put("cachedRoutes", cached);
+        stats.put("cacheSize", cacheSize);
+        stats.put("cacheHits", (long) cacheHits.count());
+        stats.put("cacheMisses", (long) cacheMisses.count());
+        stats.put("unreachable", (long) unreachable.count());
+        stats.put("searchMeanMs", planTimer.mean(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+
+    /**
+     * A* from one cell to another; returns the turning points (cell centres), or null
+     */
+    private List<PositionObject> search(int start, int goal) {
+        if (blocked.get(start) || blocked.get(goal)) {
+            return null;
+        }
+        if (start == goal) {
+            return List.of(centerOf(start));
+        }
+        int size = rows * cols;
+        double[] cost = new double[size];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        int[] parent = new int[size];
+        BitSet closed = new BitSet(size);
+        NodeHeap open = new NodeHeap();
+
+        int goalRow = goal / cols;
+        int goalCol = goal % cols;
+        cost[start] = 0;
+        parent[start] = -1;
+        open.push(start, heuristic(start / cols, start % cols, goalRow, goalCol));
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            if (current == goal) {
+                return smooth(trace(parent, goal));
+            }
+            if (closed.get(current)) {
+                continue;
+            }
+            closed.set(current);
+            int row = current / cols;
+            int col = current % cols;
+            for (int d = 0; d < 8; d++) {
+                int r = row + DR[d];
+                int c = col + DC[d];
+                if (r < 0 || r >= rows || c < 0 || c >= cols) {
+                    continue;
+                }
+                int next = r * cols + c;
+                if (blocked.get(next) || closed.get(next)) {
+                    continue;
+                }
+                boolean diagonal = DR[d] != 0 && DC[d] != 0;
+                // No corner cutting past a blocked cell
+                if (diagonal && (blocked.get(row * cols + c) || blocked.get(r * cols + col))) {
+                    continue;
+                }
+                double tentative = cost[current] + (diagonal ? SQRT2 : 1.0);
+                if (tentative < cost[next]) {
+                    cost[next] = tentative;
+                    parent[next] = current;
+                    open.push(next, tentative + heuristic(r, c, goalRow, goalCol));
+                }
+            }
+        }
+        return null;
+    }
+
+    private int randomOpenCell(Random random) {
+        int cell = random.nextInt(rows * cols);
+        for (int attempt = 0; attempt < 100 && blocked.get(cell); attempt++) {
+            cell = random.nextInt(rows * cols);
+        }
+        return cell;
+    }
+
+    // Octile distance: exact on an obstacle-free 8-connected grid, so A* stays optimal
+    private static double heuristic(int row, int col, int goalRow, int goalCol) {
+        int dr = Math.abs(row - goalRow);
+        int dc = Math.abs(col - goalCol);
+        return Math.max(dr, dc) + (SQRT2 - 1) * Math.min(dr, dc);
+    }
+
+    private List<Integer> trace(int[] parent, int goal) {
+        List<Integer> cells = new ArrayList<>();
+        for (int cell = goal; cell != -1; cell = parent[cell]) {
+            cells.add(cell);
+        }
+        Collections.reverse(cells);
+        return cells;
+    }
+
+    /**
+     * Keep only the cells where the route has to turn: from each kept cell, jump to the
+     * furthest later cell still in clear line of sight
+     */
+    private List<PositionObject> smooth(List<Integer> cells) {
+        List<PositionObject> points = new ArrayList<>();
+        int anchor = 0;
+        points.add(centerOf(cells.get(0)));
+        while (anchor < cells.size() - 1) {
+            int next = anchor + 1;
+            for (int candidate = cells.size() - 1; candidate > anchor + 1; candidate--) {
+                if (lineOfSight(cells.get(anchor), cells.get(candidate))) {
+                    next = candidate;
+                    break;
+                }
+            }
+            points.add(centerOf(cells.get(next)));
+            anchor = next;
+        }
+        return Collections.unmodifiableList(points);
+    }
+
+    private boolean lineOfSight(int from, int to) {
+        int r0 = from / cols;
+        int c0 = from % cols;
+        int r1 = to / cols;
+        int c1 = to % cols;
+        // Sample at a quarter cell so the segment cannot slip between blocked cells
+        int steps = Math.max(Math.abs(r1 - r0), Math.abs(c1 - c0)) * 4;
+        for (int i = 1; i < steps; i++) {
+            double t = (double) i / steps;
+            int r = (int) Math.round(r0 + (r1 - r0) * t);
+            int c = (int) Math.round(c0 + (c1 - c0) * t);
+            if (blocked.get(r * cols + c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Swap the cached cell centres at both ends for the exact pad and drop-off points
+     */
+    private static List<PositionObject> withEndpoints(List<PositionObject> route, PositionObject from, PositionObject to) {
+        if (route.isEmpty()) {
+            return route;
+        }
+        List<PositionObject> result = new ArrayList<>(route.size() + 1);
+        result.add(from);
+        for (int i = 1; i < route.size() - 1; i++) {
+            result.add(route.get(i));
+        }
+        result.add(to);
+        return result;
+    }
+
+    private int cellOf(PositionObject point) {
+        int row = (int) Math.floor((point.lat - minLat) / latStep);
+        int col = (int) Math.floor((point.lng - minLng) / lngStep);
+        // Points outside the service area are routed from/to the nearest edge cell
+        row = Math.max(0, Math.min(rows - 1, row));
+        col = Math.max(0, Math.min(cols - 1, col));
+        return row * cols + col;
+    }
+
+    private PositionObject centerOf(int cell) {
+        return new PositionObject(minLat + (cell / cols + 0.5) * latStep, minLng + (cell % cols + 0.5) * lngStep);
+    }
+
+    /**
+     * Parse "lat,lng,radiusMeters;lat,lng,radiusMeters" and mark every cell whose centre
+     * lies inside a zone as blocked
+     */
+    private int blockZones(String zones) {
+        if (!StringUtils.hasText(zones)) {
+            return 0;
+        }
+        int count = 0;
+        for (String zone : zones.split(";")) {
+            if (!StringUtils.hasText(zone)) {
+                continue;
+            }
+            String[] parts = zone.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid no-fly zone '" + zone.trim() + "', expected lat,lng,radiusMeters");
+            }
+            double lat = Double.parseDouble(parts[0].trim());
+            double lng = Double.parseDouble(parts[1].trim());
+            double radius = Double.parseDouble(parts[2].trim());
+            for (int cell = 0; cell < rows * cols; cell++) {
+                PositionObject center = centerOf(cell);
+                if (GeoUtils.distanceMeters(lat, lng, center.lat, center.lng) <= radius) {
+                    blocked.set(cell);
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Binary min-heap of (cell, priority) with lazy deletion: a cell may be pushed again
+     * with a better priority and stale entries are skipped once the cell is closed
+     */
+    private static class NodeHeap {
+        private int[] nodes = new int[256];
+        private double[] keys = new double[256];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int node, double key) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            int lastNode = nodes[size];
+            double lastKey = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= lastKey) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            keys[i] = lastKey;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,635 @@
+package com.foodfast.service;
+
+import com.foodfast.dto.DroneTelemetry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Telemetry History Store
+ * Append-only drone telemetry history. Every fix is downsampled into three resolutions
+ * (1s, 10s, 1m: the last fix per drone per bucket) and closed buckets are appended to
+ * one segment file per resolution and UTC day, as fixed-size binary records in time
+ * order. Drone and restaurant ids are stored as indexes into a shared dictionary file.
+ * Range queries memory-map only the day files that overlap the window and binary-search
+ * the first record, so reads never touch other days (and never days outside retention).
+ * Old day files are deleted per resolution retention. Fixes are timed by the server
+ * (a drone's own timestamp is only kept within max-skew of now) and buckets are written
+ * once that skew has passed, so segments stay in time order; a drone's fix for a bucket
+ * already written for that drone is dropped and counted.
+ */
+@Service
+public class TelemetryHistoryStore implements DroneTelemetryListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryHistoryStore.class);
+
+    /**
+     * ts(8) drone(4) restaurant(4) latE6(4) lngE6(4) speed cm/s(2) battery(1) status(1)
+     */
+    static final int RECORD_SIZE = 28;
+    private static final long WINDOW_RECORDS = 1 << 20;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final byte STATUS_DELIVERING = 0;
+    private static final byte STATUS_RETURNING = 1;
+    private static final byte STATUS_IDLE = 2;
+    private static final byte STATUS_CHARGING = 3;
+
+    /**
+     * Stored resolutions, finest first
+     */
+    public enum Resolution {
+        S1("1s", 1_000),
+        S10("10s", 10_000),
+        M1("1m", 60_000);
+
+        final String label;
+        final long bucketMillis;
+
+        Resolution(String label, long bucketMillis) {
+            this.label = label;
+            this.bucketMillis = bucketMillis;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Resolution fromLabel(String label) {
+            for (Resolution resolution : values()) {
+                if (resolution.label.equalsIgnoreCase(label)) {
+                    return resolution;
+                }
+            }
+            throw new IllegalArgumentException("Unknown resolution '" + label + "', expected 1s, 10s or 1m");
+        }
+    }
+
+    /**
+     * Receives records in time order; return false to stop the scan
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        boolean visit(DroneTelemetry record);
+    }
+
+    private final Path directory;
+    private final Map<Resolution, Long> retentionMillis = new LinkedHashMap<>();
+    private final Map<Resolution, Tier> tiers = new LinkedHashMap<>();
+    private final Dictionary dictionary;
+    private final MeterRegistry meterRegistry;
+    private final long maxSkewMillis;
+
+    public TelemetryHistoryStore(
+            MeterRegistry meterRegistry,
+            @Value("${foodfast.telemetry.history.dir:./data/telemetry}") String directory,
+            @Value("${foodfast.telemetry.history.max-skew-ms:2000}") long maxSkewMillis,
+            @Value("${foodfast.telemetry.history.retention-1s-days:2}") long retention1s,
+            @Value("${foodfast.telemetry.history.retention-10s-days:14}") long retention10s,
+            @Value("${foodfast.telemetry.history.retention-1m-days:90}") long retention1m) {
+        this.meterRegistry = meterRegistry;
+        this.maxSkewMillis = Math.max(0, maxSkewMillis);
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.retentionMillis.put(Resolution.S1, TimeUnit.DAYS.toMillis(retention1s));
+        this.retentionMillis.put(Resolution.S10, TimeUnit.DAYS.toMillis(retention10s));
+        this.retentionMillis.put(Resolution.M1, TimeUnit.DAYS.toMillis(retention1m));
+        this.dictionary = new Dictionary(this.directory.resolve("dictionary.txt"));
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        for (Resolution resolution : Resolution.values()) {
+            Path tierDirectory = directory.resolve(resolution.label);
+            Files.createDirectories(tierDirectory);
+            tiers.put(resolution, new Tier(resolution, tierDirectory, Counter.builder("foodfast.telemetry.history.records")
+                    .description("Telemetry records appended to history segments")
+                    .tag("resolution", resolution.label)
+                    .register(meterRegistry), Counter.builder("foodfast.telemetry.history.late")
+                    .description("Telemetry fixes dropped because the drone's bucket was already written")
+                    .tag("resolution", resolution.label)
+                    .register(meterRegistry)));
+        }
+        dictionary.load();
+        log.info("Storing history in {} ({} dictionary entries)", directory, dictionary.size());
+    }
+
+    @PreDestroy
+    public void close() {
+        // Write the still-open buckets too, so nothing is lost on shutdown
+        for (Tier tier : tiers.values()) {
+            tier.flush(Long.MAX_VALUE);
+            tier.closeWriter();
+        }
+    }
+
+    @Override
+    public void onTelemetry(DroneTelemetry telemetry) {
+        // Client clocks are not trusted: a future or stale updatedAt is pulled back into [now - skew, now]
+        long now = System.currentTimeMillis();
+        long timestamp = telemetry.updatedAt > 0
+                ? Math.max(now - maxSkewMillis, Math.min(now, telemetry.updatedAt))
+                : now;
+        for (Tier tier : tiers.values()) {
+            tier.offer(telemetry, timestamp);
+        }
+    }
+
+    @Override
+    public void onDroneRemoved(String droneId) {
+        for (Tier tier : tiers.values()) {
+            tier.close(droneId);
+        }
+    }
+
+    /**
+     * Append every bucket that ended more than max-skew ago; no later fix can fall into it
+     */
+    @Scheduled(fixedDelayString = "${foodfast.telemetry.history.flush-interval-ms:1000}")
+    public void flush() {
+        long settled = System.currentTimeMillis() - maxSkewMillis;
+        for (Tier tier : tiers.values()) {
+            tier.flush(settled - settled % tier.resolution.bucketMillis);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${foodfast.telemetry.history.retention-interval-ms:3600000}",
+            initialDelayString = "${foodfast.telemetry.history.retention-initial-delay-ms:60000}")
+    public void applyRetention() {
+        int deleted = 0;
+        for (Tier tier : tiers.values()) {
+            LocalDate oldestKept = oldestRetainedDay(tier.resolution);
+            for (Map.Entry<LocalDate, Path> segment : tier.listSegments().entrySet()) {
+                if (segment.getKey().isBefore(oldestKept)) {
+                    try {
+                        Files.deleteIfExists(segment.getValue());
+                        deleted++;
+                    } catch (IOException e) {
+                        log.warn("Failed to delete {}: {}", segment.getValue(), e.getMessage());
+                    }
+                }
+            }
+        }
+        if (deleted > 0) {
+            log.info("Retention removed {} segment files", deleted);
+        }
+    }
+
+    /**
+     * Finest resolution that still covers the window start and keeps the result below
+     * roughly maxPoints per drone
+     */
+    public Resolution chooseResolution(long from, long to, int maxPoints) {
+        long now = System.currentTimeMillis();
+        for (Resolution resolution : Resolution.values()) {
+            boolean retained = from >= now - retentionMillis.get(resolution);
+            if (retained && (to - from) / resolution.bucketMillis <= maxPoints) {
+                return resolution;
+            }
+        }
+        return Resolution.M1;
+    }
+
+    /**
+     * One drone's history in [from, to], at most limit points
+     */
+    public List<DroneTelemetry> query(String droneId, long from, long to, Resolution resolution, int limit) {
+        List<DroneTelemetry> points = new ArrayList<>();
+        scan(resolution, from, to, droneId, null, record -> {
+            points.add(record);
+            return points.size() < limit;
+        });
+        return points;
+    }
+
+    /**
+     * Visit the records in [from, to] in time order, optionally only one drone's or one
+     * restaurant's. Day segments are mapped one at a time, so memory use does not grow
+     * with the window; days outside retention (or after tomorrow) are not even looked up.
+     */
+    public void scan(Resolution resolution, long from, long to, String droneId, String restaurantId, RecordVisitor visitor) {
+        int droneIndex = droneId != null ? dictionary.indexOf(droneId) : -1;
+        int restaurantIndex = restaurantId != null ? dictionary.indexOf(restaurantId) : -1;
+        if ((droneId != null && droneIndex < 0) || (restaurantId != null && restaurantIndex < 0)) {
+            return; // Never recorded
+        }
+        Tier tier = tiers.get(resolution);
+        LocalDate oldestDay = oldestRetainedDay(resolution);
+        LocalDate newestDay = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        LocalDate firstDay = Instant.ofEpochMilli(from).atZone(ZoneOffset.UTC).toLocalDate();
+        LocalDate lastDay = Instant.ofEpochMilli(to).atZone(ZoneOffset.UTC).toLocalDate();
+        if (firstDay.isBefore(oldestDay)) {
+            firstDay = oldestDay;
+        }
+        if (lastDay.isAfter(newestDay)) {
+            lastDay = newestDay;
+        }
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            Path segment = tier.segmentPath(day);
+            if (!Files.exists(segment)) {
+                continue;
+            }
+            if (!scanSegment(segment, from, to, droneIndex, restaurantIndex, visitor)) {
+                return;
+            }
+        }
+    }
+
+    private LocalDate oldestRetainedDay(Resolution resolution) {
+        long keepDays = TimeUnit.MILLISECONDS.toDays(retentionMillis.get(resolution));
+        return LocalDate.now(ZoneOffset.UTC).minusDays(keepDays);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory.toString());
+        stats.put("dictionaryEntries", dictionary.size());
+        for (Tier tier : tiers.values()) {
+            Map<String, Object> tierStats = new LinkedHashMap<>();
+            long bytes = 0;
+            Map<LocalDate, Path> segments = tier.listSegments();
+            for (Path segment : segments.values()) {
+                try {
+                    bytes += Files.size(segment);
+                } catch (IOException ignored) {
+                    // Deleted meanwhile
+                }
+            }
+            tierStats.put("segments", segments.size());
+            tierStats.put("records", bytes / RECORD_SIZE);
+            tierStats.put("bytes", bytes);
+            tierStats.put("pendingBuckets", tier.pending.size() + tier.closed.size());
+            tierStats.put("lateDropped", (long) tier.late.count());
+            tierStats.put("retentionDays", TimeUnit.MILLISECONDS.toDays(retentionMillis.get(tier.resolution)));
+            stats.put(tier.resolution.label, tierStats);
+        }
+        return stats;
+    }
+
+    private boolean scanSegment(Path segment, long from, long to, int droneIndex, int restaurantIndex, RecordVisitor visitor) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long count = channel.size() / RECORD_SIZE;
+
+            // Records are in time order: binary-search the first one at or after from
+            ByteBuffer probe = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long low = 0;
+            long high = count;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                probe.clear();
+                channel.read(probe, mid * RECORD_SIZE);
+                if (probe.getLong(0) < from) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            // Then map the rest window by window, so a large day file is never mapped whole
+            for (long first = low; first < count; first += WINDOW_RECORDS) {
+                long records = Math.min(WINDOW_RECORDS, count - first);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, first * RECORD_SIZE, records * RECORD_SIZE);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+                for (int offset = 0; offset < records * RECORD_SIZE; offset += RECORD_SIZE) {
+                    long timestamp = window.getLong(offset);
+                    if (timestamp > to) {
+                        return true;
+                    }
+                    int drone = window.getInt(offset + 8);
+                    int restaurant = window.getInt(offset + 12);
+                    if ((droneIndex >= 0 && drone != droneIndex) || (restaurantIndex >= 0 && restaurant != restaurantIndex)) {
+                        continue;
+                    }
+                    if (!visitor.visit(decode(window, offset, timestamp, drone, restaurant))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + segment, e);
+        }
+    }
+
+    private DroneTelemetry decode(ByteBuffer buffer, int offset, long timestamp, int drone, int restaurant) {
+        DroneTelemetry record = new DroneTelemetry();
+        record.updatedAt = timestamp;
+        record.id = dictionary.get(drone);
+        record.restaurantId = restaurant >= 0 ? dictionary.get(restaurant) : null;
+        record.lat = buffer.getInt(offset + 16) / 1e6;
+        record.lng = buffer.getInt(offset + 20) / 1e6;
+        record.speedMps = Short.toUnsignedInt(buffer.getShort(offset + 24)) / 100.0;
+        record.battery = buffer.get(offset + 26);
+        record.status = switch (buffer.get(offset + 27)) {
+            case STATUS_DELIVERING -> "delivering";
+            case STATUS_IDLE -> "idle";
+            case STATUS_CHARGING -> "charging";
+            default -> "returning";
+        };
+        return record;
+    }
+
+    private void encode(ByteBuffer buffer, long timestamp, DroneTelemetry telemetry) {
+        buffer.putLong(timestamp);
+        buffer.putInt(dictionary.indexFor(telemetry.id));
+        buffer.putInt(telemetry.restaurantId != null ? dictionary.indexFor(telemetry.restaurantId) : -1);
+        buffer.putInt((int) Math.round(telemetry.lat * 1e6));
+        buffer.putInt((int) Math.round(telemetry.lng * 1e6));
+        buffer.putShort((short) Math.min(0xFFFF, Math.max(0, Math.round(telemetry.speedMps * 100))));
+        buffer.put((byte) Math.max(0, Math.min(100, telemetry.battery)));
+        buffer.put(encodeStatus(telemetry.status));
+    }
+
+    private static byte encodeStatus(String status) {
+        if (status == null) {
+            return STATUS_RETURNING;
+        }
+        return switch (status) {
+            case "delivering" -> STATUS_DELIVERING;
+            case "idle" -> STATUS_IDLE;
+            case "charging" -> STATUS_CHARGING;
+            default -> STATUS_RETURNING;
+        };
+    }
+
+    private static final class Sample {
+        final long bucket;
+        final DroneTelemetry telemetry;
+
+        Sample(long bucket, DroneTelemetry telemetry) {
+            this.bucket = bucket;
+            this.telemetry = telemetry;
+        }
+    }
+
+    /**
+     * One resolution: the open bucket per drone, closed buckets waiting to be written,
+     * the last bucket written per drone and the append channel of the current day's segment
+     */
+    private class Tier {
+        final Resolution resolution;
+        final Path directory;
+        final Counter records;
+        final Counter late;
+        final ConcurrentHashMap<String, Sample> pending = new ConcurrentHashMap<>();
+        final ConcurrentLinkedQueue<Sample> closed = new ConcurrentLinkedQueue<>();
+        final ConcurrentHashMap<String, Long> written = new ConcurrentHashMap<>();
+        final ReentrantLock writeLock = new ReentrantLock();
+        FileChannel writer;
+        LocalDate writerDay;
+        long lastWritten;
+
+        Tier(Resolution resolution, Path directory, Counter records, Counter late) {
+            this.resolution = resolution;
+            this.directory = directory;
+            this.records = records;
+            this.late = late;
+        }
+
+        void offer(DroneTelemetry telemetry, long timestamp) {
+            long bucket = timestamp - timestamp % resolution.bucketMillis;
+            Long lastBucket = written.get(telemetry.id);
+            if (lastBucket != null && bucket <= lastBucket) {
+                late.increment();
+                return;
+            }
+            Sample sample = new Sample(bucket, telemetry);
+            pending.compute(telemetry.id, (id, open) -> {
+                if (open != null && open.bucket < bucket) {
+                    closed.add(open);
+                } else if (open != null && open.bucket > bucket) {
+                    return open; // Late fix for a bucket already left behind
+                }
+                return sample;
+            });
+        }
+
+        void close(String droneId) {
+            Sample open = pending.remove(droneId);
+            if (open != null) {
+                closed.add(open);
+            }
+            written.remove(droneId);
+        }
+
+        /**
+         * Append the closed and open buckets that start before the watermark; closed
+         * buckets at or after it wait, so a skewed fix of another drone can still go first
+         */
+        void flush(long watermark) {
+            List<Sample> batch = new ArrayList<>();
+            List<Sample> unsettled = new ArrayList<>();
+            for (Sample sample; (sample = closed.poll()) != null; ) {
+                (sample.bucket < watermark ? batch : unsettled).add(sample);
+            }
+            closed.addAll(unsettled);
+            for (Map.Entry<String, Sample> entry : pending.entrySet()) {
+                Sample sample = entry.getValue();
+                if (sample.bucket < watermark && pending.remove(entry.getKey(), sample)) {
+                    batch.add(sample);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            batch.sort(Comparator.comparingLong(sample -> sample.bucket));
+
+            writeLock.lock();
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(Math.min(batch.size(), 4096) * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                LocalDate bufferDay = null;
+                int dropped = 0;
+                for (Sample sample : batch) {
+                    Long lastBucket = written.get(sample.telemetry.id);
+                    // Segments must stay in time order; only a fix that stalled past the skew window gets here
+                    if ((lastBucket != null && sample.bucket <= lastBucket) || sample.bucket < lastWritten) {
+                        dropped++;
+                        continue;
+                    }
+                    long timestamp = sample.bucket;
+                    LocalDate day = Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC).toLocalDate();
+                    if ((bufferDay != null && !day.equals(bufferDay)) || !buffer.hasRemaining()) {
+                        write(buffer, bufferDay);
+                    }
+                    bufferDay = day;
+                    encode(buffer, timestamp, sample.telemetry);
+                    written.put(sample.telemetry.id, timestamp);
+                    lastWritten = timestamp;
+                }
+                if (bufferDay != null) {
+                    write(buffer, bufferDay);
+                }
+                records.increment(batch.size() - dropped);
+                late.increment(dropped);
+            } catch (IOException e) {
+                log.error("Failed to append {} {} records", batch.size(), resolution.label, e);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private void write(ByteBuffer buffer, LocalDate day) throws IOException {
+            buffer.flip();
+            if (buffer.hasRemaining()) {
+                FileChannel channel = writerFor(day);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            buffer.clear();
+        }
+
+        private FileChannel writerFor(LocalDate day) throws IOException {
+            if (writer != null && day.equals(writerDay)) {
+                return writer;
+            }
+            closeWriter();
+            writer = FileChannel.open(segmentPath(day), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // Drop a partial record left by a crash mid-write, then append
+            long size = writer.size();
+            writer.truncate(size - size % RECORD_SIZE);
+            writer.position(writer.size());
+            writerDay = day;
+            return writer;
+        }
+
+        void closeWriter() {
+            writeLock.lock();
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+            } catch (IOException e) {
+                log.warn("Failed to close {} segment: {}", resolution.label, e.getMessage());
+            } finally {
+                writer = null;
+                writerDay = null;
+                writeLock.unlock();
+            }
+        }
+
+        Path segmentPath(LocalDate day) {
+            return directory.resolve(day + SEGMENT_SUFFIX);
+        }
+
+        Map<LocalDate, Path> listSegments() {
+            Map<LocalDate, Path> segments = new LinkedHashMap<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    try {
+                        segments.put(LocalDate.parse(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+                    } catch (DateTimeParseException ignored) {
+                        // Not a segment file
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Failed to list {}: {}", directory, e.getMessage());
+            }
+            return segments;
+        }
+    }
+
+    /**
+     * Append-only string table (drone and restaurant ids); an entry's index is its line number
+     */
+    private static class Dictionary {
+        private final Path file;
+        private final ConcurrentHashMap<String, Integer> indexes = new ConcurrentHashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile String[] values = new String[0];
+        private BufferedWriter writer;
+
+        Dictionary(Path file) {
+            this.file = file;
+        }
+
+        void load() throws IOException {
+            List<String> lines = Files.exists(file)
+                    ? Files.readAllLines(file, StandardCharsets.UTF_8)
+                    : List.of();
+            for (int i = 0; i < lines.size(); i++) {
+                indexes.put(lines.get(i), i);
+            }
+            values = lines.toArray(new String[0]);
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        int size() {
+            return values.length;
+        }
+
+        int indexOf(String value) {
+            Integer index = indexes.get(value);
+            return index != null ? index : -1;
+        }
+
+        String get(int index) {
+            String[] current = values;
+            return index >= 0 && index < current.length ? current[index] : null;
+        }
+
+        int indexFor(String value) {
+            Integer index = indexes.get(value);
+            if (index != null) {
+                return index;
+            }
+            lock.lock();
+            try {
+                index = indexes.get(value);
+                if (index != null) {
+                    return index;
+                }
+                String line = value.replace('\n', ' ').replace('\r', ' ');
+                writer.write(line);
+                writer.newLine();
+                writer.flush();
+                String[] current = values;
+                String[] next = Arrays.copyOf(current, current.length + 1);
+                next[current.length] = line;
+                values = next;
+                indexes.put(line, current.length);
+                indexes.putIfAbsent(value, current.length);
+                return current.length;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to extend telemetry dictionary", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -41,10 +41,10 @@ INSERT INTO drones (id, restaurant_id, restaurant_name, status, battery, current
 -- Insert Sample Orders (matching frontend Order interface)
 -- Note: Order items are inserted separately via OrderItem entity
 -- Note: created_at and updated_at use CURRENT_TIMESTAMP for simplicity and compatibility
-INSERT INTO orders (id, customer_name, customer_phone, customer_email, address, restaurant, restaurant_id, user_id, payment_session_id, payment_method, payment_status, note, drone_id, status, total, created_at, updated_at) VALUES
-('ORDER-001', 'Nguyễn Văn A', '0123456789', 'nguyenvana@example.com', '123 Đường ABC, Quận 1, TP.HCM', 'SweetDreams', 'rest_2', 'u2', NULL, 'cash', 'paid', 'Giao nhanh giúp em', 'DRONE-rest_2-002', 'DELIVERING', 85000, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('ORDER-002', 'Trần Thị B', '0987654321', 'tranthib@example.com', '456 Đường XYZ, Quận 2, TP.HCM', 'Aloha', 'restaurant_2', 'u4', NULL, 'vnpay', 'paid', NULL, 'DRONE-restaurant_2-002', 'PREPARING', 158000, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('ORDER-003', 'Lê Văn C', '0912345678', 'levanc@example.com', '789 Đường DEF, Quận 3, TP.HCM', 'SweetDreams', 'rest_2', 'u2', NULL, 'cash', 'pending', NULL, NULL, 'PENDING', 100000, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO orders (id, customer_name, customer_phone, customer_email, address, restaurant, restaurant_id, user_id, payment_session_id, payment_method, payment_status, note, drone_id, status, total, version, created_at, updated_at) VALUES
+('ORDER-001', 'Nguyễn Văn A', '0123456789', 'nguyenvana@example.com', '123 Đường ABC, Quận 1, TP.HCM', 'SweetDreams', 'rest_2', 'u2', NULL, 'cash', 'paid', 'Giao nhanh giúp em', 'DRONE-rest_2-002', 'DELIVERING', 85000, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('ORDER-002', 'Trần Thị B', '0987654321', 'tranthib@example.com', '456 Đường XYZ, Quận 2, TP.HCM', 'Aloha', 'restaurant_2', 'u4', NULL, 'vnpay', 'paid', NULL, 'DRONE-restaurant_2-002', 'PREPARING', 158000, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('ORDER-003', 'Lê Văn C', '0912345678', 'levanc@example.com', '789 Đường DEF, Quận 3, TP.HCM', 'SweetDreams', 'rest_2', 'u2', NULL, 'cash', 'pending', NULL, NULL, 'PENDING', 100000, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
 -- Insert Order Items for ORDER-001
 INSERT INTO order_items (product_id, name, qty, price, product_name, order_id) VALUES
@@ -88,9 +88,14 @@ class RealtimeSocket {
       }
     });
 
-    this.client.subscribe('/topic/cart', (message: IMessage) => {
-      const payload = JSON.parse(message.body);
-      this.cartCallbacks.forEach(cb => cb(payload));
+    // Cart diffs (ADDED / REMOVED / CLEARED) for this session's cart only
+    this.client.subscribe('/user/queue/cart', (message: IMessage) => {
+      try {
+        const payload = JSON.parse(message.body);
+        this.cartCallbacks.forEach(cb => cb(payload));
+      } catch (error) {
+        console.error('[RealtimeSocket] Failed to parse cart update:', error);
+      }
     });
   }
 }
@@ -490,6 +490,8 @@ const DroneMonitor: React.FC<DroneMonitorProps> = ({ drones, onUpdate }) => {
     if (realtime) {
       if (realtime.status === 'delivering') mappedStatus = 'Delivering';
       else if (realtime.status === 'returning') mappedStatus = 'Charging';
+      else if (realtime.status === 'charging') mappedStatus = 'Charging';
+      else if (realtime.status === 'idle') mappedStatus = 'Idle';
       else if (realtime.status === 'maintenance') mappedStatus = 'Maintenance';
       else if (realtime.status === 'offline') mappedStatus = 'Idle';
       else if (realtime.status === 'active' && !realtime.orderId) mappedStatus = 'Idle';
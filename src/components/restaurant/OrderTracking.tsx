@@ -9,7 +9,8 @@ import {
   confirmOrder as confirmOrderService, 
   rejectOrder as rejectOrderService,
   updateOrderStatus as updateOrderStatusService,
-  addOrderNote as addOrderNoteService
+  addOrderNote as addOrderNoteService,
+  getNextStatuses
 } from '@/services/restaurantOrderService';
 import { connectOrderSocket, disconnectOrderSocket } from '@/services/orderSyncService';
 
@@ -315,8 +316,8 @@ const EmptyState = styled.div`
   color: #999;
 `;
 
-// Status options for dropdown - fixed order
-const STATUS_OPTIONS: OrderStatus[] = ['In Progress', 'Delivering', 'Delivered', 'Cancelled'];
+// Status options for dropdown - fixed order; steps the backend would reject (409) are disabled
+const STATUS_OPTIONS: OrderStatus[] = ['In Progress', 'Ready', 'Delivering', 'Delivered', 'Cancelled'];
 
 // Helper function to translate order status to Vietnamese
 const getStatusLabel = (status: string): string => {
@@ -710,10 +711,12 @@ const OrderTracking: React.FC<OrderTrackingProps> = ({ restaurantId, theme }) =>
                       >
                         {STATUS_OPTIONS.map((status) => {
                           const isCurrentStatus = order.status === status;
+                          const isAllowed = isCurrentStatus || getNextStatuses(order.status as OrderStatus).includes(status);
                           return (
                             <option 
                               key={status} 
                               value={status}
+                              disabled={!isAllowed}
                             >
                               {getStatusLabel(status)}{isCurrentStatus ? ' (Hiện tại)' : ''}
                             </option>
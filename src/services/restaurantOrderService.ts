@@ -263,7 +263,7 @@ export const getNextStatuses = (currentStatus: OrderStatus): OrderStatus[] => {
     'Confirmed': ['In Progress', 'Cancelled'],
     'In Progress': ['Ready', 'Cancelled'],
     'Ready': ['Delivering', 'Cancelled'],
-    'Delivering': ['Delivered', 'Cancelled'],
+    'Delivering': ['Delivered'],
     'Delivered': [],
     'Cancelled': []
   };